@@ -0,0 +1,12 @@
+package org.perfume.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PERFUMES = "perfumes";
+    public static final String SIMILAR_PERFUMES = "similarPerfumes";
+}
@@ -0,0 +1,73 @@
+package org.perfume.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured pool with primary/replica routing when catalog.replicas.enabled
+ * is set. Replicas share the primary's credentials unless their own are given.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    private static final Duration REPLICA_CONNECTION_TIMEOUT = Duration.ofSeconds(2);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             @Value("${catalog.replicas.urls}") List<String> urls,
+                                                             @Value("${catalog.replicas.username:${spring.datasource.username}}") String username,
+                                                             @Value("${catalog.replicas.password:${spring.datasource.password}}") String password,
+                                                             @Value("${catalog.replicas.pool-size:10}") int poolSize,
+                                                             @Value("${catalog.replicas.max-lag:5s}") Duration maxLag,
+                                                             MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = urls.stream()
+                .map(url -> replica(properties, url, username, password, poolSize))
+                .toList();
+        for (int i = 0; i < replicas.size(); i++) {
+            replicas.get(i).setPoolName("replica-" + i);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private HikariDataSource replica(DataSourceProperties properties, String url, String username, String password, int poolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setReadOnly(true);
+        // A replica that is down must neither stop startup nor stall health checks for long
+        dataSource.setInitializationFailTimeout(-1);
+        dataSource.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT.toMillis());
+        return dataSource;
+    }
+}
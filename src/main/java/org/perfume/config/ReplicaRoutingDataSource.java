@@ -0,0 +1,269 @@
+package org.perfume.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.perfume.service.event.BrandChangedEvent;
+import org.perfume.service.event.CategoryChangedEvent;
+import org.perfume.service.event.PerfumeChangedEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica, round-robin, and everything else to the
+ * primary. Replicas that fail the health check or lag more than {@code maxLag} behind are taken
+ * out of rotation until a later check passes; with none left, reads go to the primary.
+ * <p>
+ * Reads also stay on the primary for {@code maxLag} after a write they could otherwise miss:
+ * <ul>
+ *     <li>after a catalog change commits, for every request on this instance. The caches and indexes
+ *     that change invalidates are refilled by whichever request comes next, and would otherwise load
+ *     the old row from a replica that has not replayed it yet.</li>
+ *     <li>after any other transaction that actually wrote, for the authenticated user who made it,
+ *     so they read their own cart, orders and profile back. Read-write transactions that only read,
+ *     and anonymous or background writes, pin nothing.</li>
+ * </ul>
+ * How often each pin fires is counted in {@code catalog.replicas.pins}, tagged by scope, and reads
+ * sent to the primary by a pin in {@code catalog.replicas.pinned.reads}.
+ * <p>
+ * Must sit behind a LazyConnectionDataSourceProxy so the key is resolved after the transaction's
+ * read-only flag is set.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+
+    private static final String PRIMARY_LSN_QUERY = "select pg_current_wal_lsn()::text";
+
+    // Zero once the replica has replayed up to the primary's current position, so an idle primary does
+    // not read as lag; measured against the primary, a replica whose WAL receiver is down falls behind.
+    // Null when it is behind but has not replayed anything since it started.
+    private static final String LAG_QUERY = """
+            select case
+                       when not pg_is_in_recovery() then 0
+                       when pg_last_wal_replay_lsn() >= cast(? as pg_lsn) then 0
+                       else extract(epoch from now() - pg_last_xact_replay_timestamp())
+                   end""";
+
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Long> userPrimaryUntil = new ConcurrentHashMap<>();
+    private final Counter catalogPins;
+    private final Counter userPins;
+    private final Counter pinnedReads;
+    private volatile List<String> healthyReplicas;
+    private volatile long primaryUntil;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.put("replica-" + i, replicas.get(i));
+        }
+        this.maxLag = maxLag;
+        this.healthyReplicas = List.of();
+        this.catalogPins = meterRegistry.counter("catalog.replicas.pins", "scope", "catalog");
+        this.userPins = meterRegistry.counter("catalog.replicas.pins", "scope", "user");
+        this.pinnedReads = meterRegistry.counter("catalog.replicas.pinned.reads");
+
+        Map<Object, Object> targets = new HashMap<>(this.replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        long now = System.currentTimeMillis();
+        if (now < primaryUntil || now < userPrimaryUntil.getOrDefault(currentUser(), 0L)) {
+            pinnedReads.increment();
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trackWrites(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trackWrites(super.getConnection(username, password));
+    }
+
+    // Ordered first among the after-commit listeners, so the ones refilling caches already read the primary
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPerfumeChanged(PerfumeChangedEvent event) {
+        pinCatalog();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        pinCatalog();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        pinCatalog();
+    }
+
+    private void pinCatalog() {
+        primaryUntil = System.currentTimeMillis() + maxLag.toMillis();
+        catalogPins.increment();
+    }
+
+    /**
+     * Wraps connections handed to read-write transactions so the transaction learns whether it sent
+     * anything but a select. Connections outside a transaction (health probes, autocommit reads) are
+     * left alone.
+     */
+    private Connection trackWrites(Connection connection) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return connection;
+        }
+        PinAfterWrite pin = new PinAfterWrite();
+        TransactionSynchronizationManager.registerSynchronization(pin);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            String name = method.getName();
+            // Plain statements carry their SQL only at execute time, so count them as writes
+            if (name.equals("createStatement") || (name.startsWith("prepare") && !isSelect((String) args[0]))) {
+                pin.wrote = true;
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return "";
+        }
+        return authentication.getName();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.replicas.health-check-interval:10s}")
+    public void checkReplicas() {
+        long now = System.currentTimeMillis();
+        userPrimaryUntil.values().removeIf(until -> until <= now);
+        if (replicas.isEmpty()) {
+            return;
+        }
+        String primaryLsn;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet lsn = statement.executeQuery(PRIMARY_LSN_QUERY)) {
+            lsn.next();
+            primaryLsn = lsn.getString(1);
+        } catch (Exception e) {
+            log.warn("Could not read the primary WAL position, keeping replicas {}: {}", healthyReplicas, e.getMessage());
+            return;
+        }
+
+        List<String> healthy = new ArrayList<>();
+        replicas.forEach((key, replica) -> {
+            try (Connection connection = replica.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(LAG_QUERY)) {
+                statement.setString(1, primaryLsn);
+                try (ResultSet lag = statement.executeQuery()) {
+                    lag.next();
+                    double lagSeconds = lag.getDouble(1);
+                    if (lag.wasNull()) {
+                        log.warn("Replica {} has not replayed anything yet, reading from the others", key);
+                    } else if (lagSeconds * 1000 <= maxLag.toMillis()) {
+                        healthy.add(key);
+                    } else {
+                        log.warn("Replica {} is {}s behind, reading from the others", key, lagSeconds);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Replica {} failed health check: {}", key, e.getMessage());
+            }
+        });
+        if (!healthy.equals(healthyReplicas)) {
+            log.info("Healthy read replicas: {}", healthy);
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    @Override
+    public void destroy() {
+        replicas.values().forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    // First among the after-commit callbacks, like the catalog pin
+    private class PinAfterWrite implements TransactionSynchronization {
+
+        private boolean wrote;
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void afterCommit() {
+            String user = currentUser();
+            if (wrote && !user.isEmpty()) {
+                userPrimaryUntil.put(user, System.currentTimeMillis() + maxLag.toMillis());
+                userPins.increment();
+            }
+        }
+    }
+}
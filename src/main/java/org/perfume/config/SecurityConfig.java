@@ -2,7 +2,6 @@ package org.perfume.config;
 
 import lombok.RequiredArgsConstructor;
 import org.perfume.security.JwtAuthenticationFilter;
-import org.perfume.security.JwtAuthorizationFilter;
 import org.perfume.security.oauth2.OAuth2SuccessHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -48,7 +47,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public static PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
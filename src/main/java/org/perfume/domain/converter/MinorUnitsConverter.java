@@ -0,0 +1,24 @@
+package org.perfume.domain.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.perfume.model.money.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * Reads a NUMERIC(38, 2) money column as plain minor units, for amounts only ever summed.
+ */
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minor) {
+        return minor == null ? null : BigDecimal.valueOf(minor, Money.SCALE);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal value) {
+        return value == null ? null : Money.minorOf(value);
+    }
+}
@@ -3,9 +3,11 @@ package org.perfume.domain.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.perfume.model.money.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -21,10 +23,14 @@ public class Cart {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<CartItem> items = new HashSet<>();
 
@@ -45,10 +51,13 @@ public class Cart {
         this.updatedAt = LocalDateTime.now();
     }
 
-    public BigDecimal getTotalPrice() {
-        return items.stream()
-                .map(item -> item.getPerfume().getDiscountedPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public Money getTotalPrice() {
+        long totalMinor = 0;
+        for (CartItem item : items) {
+            totalMinor = Math.addExact(totalMinor,
+                    Math.multiplyExact(item.getPerfume().getDiscountedPriceMinor(), item.getQuantity()));
+        }
+        return Money.ofMinor(totalMinor);
     }
 
     public int getTotalItems() {
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
@@ -18,10 +19,12 @@ public class CartItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cart_id", nullable = false)
     private Cart cart;
 
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "perfume_id", nullable = false)
     private Perfume perfume;
@@ -45,4 +48,23 @@ public class CartItem {
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
+
+    // Items live in Cart.items, a Set: equal by id once persisted and by reference before, so unsaved
+    // items never collapse into one. The hash ignores the id, which is only assigned on persist, so
+    // an item keeps its bucket across the insert; quantity changes and lazy associations never move it.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CartItem other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return CartItem.class.hashCode();
+    }
 }
\ No newline at end of file
@@ -4,9 +4,10 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.perfume.domain.converter.MoneyConverter;
 import org.perfume.model.enums.OrderStatus;
+import org.perfume.model.money.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -26,8 +27,9 @@ public class Order {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "total_amount", nullable = false)
-    private BigDecimal totalAmount;
+    private Money totalAmount;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -48,6 +50,10 @@ public class Order {
     @Column(name = "customer_notes", columnDefinition = "TEXT")
     private String customerNotes;
 
+    // Whether the items' quantities are currently taken off stock; flipped through OrderJdbcDao
+    @Column(name = "stock_reserved", nullable = false)
+    private boolean stockReserved;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<OrderItem> items = new HashSet<>();
 
@@ -3,9 +3,11 @@ package org.perfume.domain.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-
-import java.math.BigDecimal;
+import lombok.ToString;
+import org.perfume.domain.converter.MoneyConverter;
+import org.perfume.model.money.Money;
 
 @Entity
 @Table(name = "order_items")
@@ -18,10 +20,15 @@ public class OrderItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Items live in Order.items, a Set: hashing must not walk back into the order or the catalog
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "perfume_id", nullable = false)
     private Perfume perfume;
@@ -29,8 +36,9 @@ public class OrderItem {
     @Column(nullable = false)
     private Integer quantity;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "unit_price", nullable = false)
-    private BigDecimal unitPrice;
+    private Money unitPrice;
 
     @Column(name = "product_name", nullable = false)
     private String productName;
@@ -38,7 +46,7 @@ public class OrderItem {
     @Column(name = "brand_name", nullable = false)
     private String brandName;
 
-    public BigDecimal getSubtotal() {
-        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    public Money getSubtotal() {
+        return unitPrice.times(quantity);
     }
 }
\ No newline at end of file
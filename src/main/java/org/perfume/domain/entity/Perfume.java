@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
+import org.perfume.domain.converter.MinorUnitsConverter;
 import org.perfume.model.enums.FragranceFamily;
 import org.perfume.model.enums.Gender;
 
@@ -23,7 +26,7 @@ public class Perfume {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
+    @Column(nullable = false, unique = true)
     private String name;
 
     @Column(columnDefinition = "TEXT")
@@ -32,6 +35,17 @@ public class Perfume {
     @Column(nullable = false)
     private BigDecimal price;
 
+    // Satış qiyməti bazada hesablanır (V1 miqrasiyası), JDBC ilə yazılan sətirlər üçün də doğrudur
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "discounted_price", insertable = false, updatable = false)
+    private BigDecimal discountedPrice;
+
+    // Eyni sütun qəpiklə: səbət və sifariş cəmləri hər sətir üçün BigDecimal yaratmadan toplanır
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(name = "discounted_price", insertable = false, updatable = false)
+    private Long discountedPriceMinor;
+
     @Column(name = "image_url")
     private String imageUrl;
 
@@ -69,10 +83,10 @@ public class Perfume {
     @Column(name = "gender", nullable = false)
     private Gender gender;
 
-    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "perfume", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<CartItem> cartItems = new HashSet<>();
 
-    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "perfume", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Favorite> favoritedBy = new HashSet<>();
 
     @PrePersist
@@ -85,13 +99,4 @@ public class Perfume {
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
-
-    public BigDecimal getDiscountedPrice() {
-        if (discountPercent == null || discountPercent == 0) {
-            return price;
-        }
-
-        BigDecimal discountAmount = price.multiply(BigDecimal.valueOf(discountPercent / 100.0));
-        return price.subtract(discountAmount);
-    }
 }
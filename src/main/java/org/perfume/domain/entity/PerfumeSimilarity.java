@@ -0,0 +1,30 @@
+package org.perfume.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "perfume_similarities")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PerfumeSimilarity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "perfume_id", nullable = false)
+    private Long perfumeId;
+
+    @Column(name = "similar_id", nullable = false)
+    private Long similarId;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(name = "neighbour_rank", nullable = false)
+    private int rank;
+}
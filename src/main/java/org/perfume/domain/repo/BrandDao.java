@@ -1,11 +1,15 @@
 package org.perfume.domain.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.perfume.domain.entity.Brand;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,10 +20,19 @@ public interface BrandDao extends JpaRepository<Brand, Long> {
     @Query("select distinct b from Brand b where lower(b.name) like lower(concat('%', :name, '%'))")
     List<Brand> findByNameContaining(@Param("name") String name);
 
+    // Sorğu keşi: siyahı yalnız brend yazılarında etibarsız olur
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Brand> findAllByOrderByNameAsc();
 
     @Query("select b from Brand b where size(b.perfumes)> 0 order by b.name")
     List<Brand> findBrandsWithPerfumes();
 
     boolean existsByName(String name);
+
+    // Typeahead üçün: id, ad və məhsul sayı
+    @Query("select b.id, b.name, size(b.perfumes) from Brand b")
+    List<Object[]> findSuggestionRows();
+
+    @Query("select b.id, b.name, size(b.perfumes) from Brand b where b.id in :ids")
+    List<Object[]> findSuggestionRowsByIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
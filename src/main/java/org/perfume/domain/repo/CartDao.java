@@ -6,18 +6,21 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartDao extends JpaRepository<Cart, Long> {
 
     // İstifadəçinin səbətini tap (USER)
-    Optional<Cart> findUserId(Long id);
+    Optional<Cart> findByUserId(Long userId);
 
     boolean existsByUserId(Long id);
 
-    // İstifadəçinin səbətini items ilə birlikdə gətir
-    @Query("select c from Cart c left join fetch c.items ci left join fetch ci.perfume where c.user.id = :userId")
-    List<Cart> findByUserIdWithItems(@Param("userId") Long userId);
+    @Query("select c.id from Cart c where c.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    // İstifadəçinin səbətini items, məhsul, brend və kateqoriya ilə birlikdə bir sorğuda gətir
+    @Query("select c from Cart c left join fetch c.items ci left join fetch ci.perfume p " +
+            "left join fetch p.brand left join fetch p.category where c.user.id = :userId")
+    Optional<Cart> findByUserIdWithItems(@Param("userId") Long userId);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,5 +47,15 @@ public interface CartItemDao extends JpaRepository<CartItem, Long> {
     // Müəyyən istifadəçinin səbətindəki məhsulları sil (USER)
     void deleteByCartId(Long cartId);
 
+    // Məhsulların stoku və səbətdəki mövcud miqdarı, bir IN sorğusu ilə
+    @Query("SELECT p.id, p.stockQuantity, ci.quantity FROM Perfume p " +
+            "LEFT JOIN CartItem ci ON ci.perfume = p AND ci.cart.id = :cartId WHERE p.id IN :perfumeIds")
+    List<Object[]> findStockAndCartQuantities(@Param("cartId") Long cartId, @Param("perfumeIds") Collection<Long> perfumeIds);
+
+    // Səbəti bir sorğu ilə təmizlə, sətirləri yükləmədən
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    int deleteAllByCartId(@Param("cartId") Long cartId);
+
 
 }
@@ -0,0 +1,122 @@
+package org.perfume.domain.repo;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based cart writes. Each call runs a fixed number of statements, whatever the number of
+ * carts or lines, taking its rows as Postgres arrays.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CartJdbcDao {
+
+    private static final String ENSURE_CARTS = """
+            insert into carts (user_id, created_at, updated_at)
+            select t.user_id, now(), now() from unnest(?::bigint[]) as t(user_id)
+            on conflict (user_id) do nothing
+            """;
+
+    private static final String DELETE_MISSING_ITEMS = """
+            delete from cart_items ci
+            using carts c
+            where ci.cart_id = c.id
+              and c.user_id = any(?::bigint[])
+              and not exists (select 1
+                              from unnest(?::bigint[], ?::bigint[]) as t(user_id, perfume_id)
+                              where t.user_id = c.user_id and t.perfume_id = ci.perfume_id)
+            """;
+
+    private static final String UPSERT_ITEMS = """
+            insert into cart_items (cart_id, perfume_id, quantity, created_at, updated_at)
+            select c.id, t.perfume_id, t.quantity, now(), now()
+            from unnest(?::bigint[], ?::bigint[], ?::int[]) as t(user_id, perfume_id, quantity)
+                     join carts c on c.user_id = t.user_id
+                     join products p on p.id = t.perfume_id
+            on conflict (cart_id, perfume_id) do update
+                set quantity = excluded.quantity, updated_at = now()
+                where cart_items.quantity is distinct from excluded.quantity
+            """;
+
+    private static final String ADD_ITEMS = """
+            insert into cart_items (cart_id, perfume_id, quantity, created_at, updated_at)
+            select ?, t.perfume_id, t.quantity, now(), now()
+            from unnest(?::bigint[], ?::int[]) as t(perfume_id, quantity)
+            on conflict (cart_id, perfume_id) do update
+                set quantity = cart_items.quantity + excluded.quantity, updated_at = now()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the id of the user's cart, creating the row when the user has none yet.
+     */
+    public Long ensureCart(Long userId) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(ENSURE_CARTS);
+            ps.setArray(1, con.createArrayOf("int8", new Long[]{userId}));
+            return ps;
+        });
+        return jdbcTemplate.queryForObject("select id from carts where user_id = ?", Long.class, userId);
+    }
+
+    /**
+     * Adds the quantities to the cart in one statement: new lines are inserted, existing lines
+     * are increased.
+     */
+    public void addItems(Long cartId, Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> entries = List.copyOf(quantities.entrySet());
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(ADD_ITEMS);
+            ps.setLong(1, cartId);
+            ps.setArray(2, con.createArrayOf("int8", entries.stream().map(Map.Entry::getKey).toArray()));
+            ps.setArray(3, con.createArrayOf("int4", entries.stream().map(Map.Entry::getValue).toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Makes each user's stored cart hold exactly the given perfume quantities, creating the cart
+     * row when needed. An empty map empties that user's cart; perfumes deleted in the meantime
+     * are skipped.
+     */
+    public void replaceItems(Map<Long, Map<Long, Integer>> itemsByUser) {
+        Long[] userIds = itemsByUser.keySet().toArray(Long[]::new);
+        List<Long> lineUsers = new ArrayList<>();
+        List<Long> linePerfumes = new ArrayList<>();
+        List<Integer> lineQuantities = new ArrayList<>();
+        itemsByUser.forEach((userId, items) -> items.forEach((perfumeId, quantity) -> {
+            lineUsers.add(userId);
+            linePerfumes.add(perfumeId);
+            lineQuantities.add(quantity);
+        }));
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(ENSURE_CARTS);
+            ps.setArray(1, con.createArrayOf("int8", userIds));
+            return ps;
+        });
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_MISSING_ITEMS);
+            ps.setArray(1, con.createArrayOf("int8", userIds));
+            ps.setArray(2, con.createArrayOf("int8", lineUsers.toArray()));
+            ps.setArray(3, con.createArrayOf("int8", linePerfumes.toArray()));
+            return ps;
+        });
+        if (!lineUsers.isEmpty()) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(UPSERT_ITEMS);
+                ps.setArray(1, con.createArrayOf("int8", lineUsers.toArray()));
+                ps.setArray(2, con.createArrayOf("int8", linePerfumes.toArray()));
+                ps.setArray(3, con.createArrayOf("int4", lineQuantities.toArray()));
+                return ps;
+            });
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package org.perfume.domain.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.perfume.domain.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +17,8 @@ public interface CategoryDao extends JpaRepository<Category, Long> {
 
     Optional<Category> findByName(String name);
 
+    // Sorğu keşi: siyahı yalnız kateqoriya yazılarında etibarsız olur
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findAllByOrderByNameAsc();
 
     @Query("select distinct c from Category c where lower(c.name) like lower(concat('%', :name, '%'))")
@@ -1,6 +1,7 @@
 package org.perfume.domain.repo;
 
 import org.perfume.domain.entity.Favorite;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,6 +12,7 @@ import java.util.Optional;
 
 @Repository
 public interface FavoriteDao extends JpaRepository<Favorite, Long> {
+    @EntityGraph(attributePaths = {"perfume", "perfume.brand", "perfume.category"})
     List<Favorite> findByUserIdOrderByCreatedAtDesc(Long userId);
 
     Optional<Favorite> findByUserIdAndPerfumeId(Long userId, Long perfumeId);
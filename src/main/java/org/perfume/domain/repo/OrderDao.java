@@ -2,8 +2,13 @@ package org.perfume.domain.repo;
 
 import org.perfume.domain.entity.Order;
 import org.perfume.model.enums.OrderStatus;
+import org.perfume.model.money.Money;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,6 +25,11 @@ public interface OrderDao extends JpaRepository<Order, Long> {
 
     Page<Order> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
 
+    // İstifadəçinin sifarişləri, keyset səhifələmə ilə (USER)
+    Window<Order> findByUserId(Long userId, ScrollPosition position, Limit limit, Sort sort);
+
+    long countByUserId(Long userId);
+
     // Status əsasında sifarişlər (ADMIN)
     List<Order> findByStatus(OrderStatus status);
 
@@ -27,7 +37,7 @@ public interface OrderDao extends JpaRepository<Order, Long> {
     List<Order> findByWhatsappNumberContaining(String whatsappNumber);
 
     // Məbləğ əsasında sifarişlər (ADMIN)
-    List<Order> findByTotalAmountGreaterThan(BigDecimal amount);
+    List<Order> findByTotalAmountGreaterThan(Money amount);
 
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :orderId")
     Order findByIdWithItems(@Param("orderId") Long orderId);
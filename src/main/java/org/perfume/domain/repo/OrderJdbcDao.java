@@ -0,0 +1,43 @@
+package org.perfume.domain.repo;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Conditional flips of an order's stock_reserved flag. The row lock makes concurrent callers
+ * queue, and only the one that actually flips the flag gets the row back, so stock is taken or
+ * given back once per flip.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderJdbcDao {
+
+    private static final String RELEASE_STOCK = """
+            update orders set stock_reserved = false, updated_at = now()
+            where id = ? and stock_reserved
+            returning id
+            """;
+
+    private static final String CLAIM_STOCK = """
+            update orders set stock_reserved = true, updated_at = now()
+            where id = ? and not stock_reserved
+            returning id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return {@code true} when the order held stock and the caller must give it back
+     */
+    public boolean releaseStock(Long orderId) {
+        return !jdbcTemplate.queryForList(RELEASE_STOCK, Long.class, orderId).isEmpty();
+    }
+
+    /**
+     * @return {@code true} when the order held no stock and the caller must reserve it
+     */
+    public boolean claimStock(Long orderId) {
+        return !jdbcTemplate.queryForList(CLAIM_STOCK, Long.class, orderId).isEmpty();
+    }
+}
@@ -1,67 +1,155 @@
 package org.perfume.domain.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.perfume.domain.entity.Perfume;
+import org.perfume.model.dto.response.PerfumeResponse;
 import org.perfume.model.enums.FragranceFamily;
 import org.perfume.model.enums.Gender;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PerfumeDao extends JpaRepository<Perfume, Long> {
+public interface PerfumeDao extends JpaRepository<Perfume, Long>, JpaSpecificationExecutor<Perfume> {
+
+    String SUMMARY = "select new org.perfume.model.dto.response.PerfumeResponse(" +
+            "p.id, p.name, p.price, p.discountedPrice, p.imageUrl, " +
+            "p.stockQuantity, p.createdAt, p.updatedAt, b.id, b.name, c.id, c.name, " +
+            "p.isFeatured, p.isBestseller, p.discountPercent, p.fragranceFamily, p.gender) " +
+            "from Perfume p join p.brand b join p.category c ";
 
     boolean existsByName(String name);
 
+    @Override
+    @EntityGraph(attributePaths = {"brand", "category"})
+    Optional<Perfume> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"brand", "category"})
+    List<Perfume> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"brand", "category"})
+    List<Perfume> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = {"brand", "category"})
     @Query("select distinct p from Perfume p where lower(p.name) like lower(concat('%', :name, '%') ) ")
     List<Perfume> findByNameContainingIgnoreCase(@Param("name") String name);
 
-    List<Perfume> findByBrandId(Long id);
+    @EntityGraph(attributePaths = {"brand", "category"})
+    @Query("select p from Perfume p order by p.createdAt desc")
+    Page<Perfume> findLatestPerfumes(Pageable pageable);
 
-    List<Perfume> findByCategoryId(Long id);
+    @EntityGraph(attributePaths = {"brand", "category"})
+    @Query("select p from Perfume p where (p.brand.id = :brandId or p.category.id = :categoryId) and p.id != :excludeId")
+    List<Perfume> findSimilarPerfumes(@Param("brandId") Long brandId, @Param("categoryId") Long categoryId,
+                                      @Param("excludeId") Long excludeId, Pageable pageable);
 
-    List<Perfume> findByPriceBetween(BigDecimal min, BigDecimal max);
+    @Query(SUMMARY + "join PerfumeSimilarity s on s.similarId = p.id where s.perfumeId = :perfumeId order by s.rank")
+    List<PerfumeResponse> findSimilarSummaries(@Param("perfumeId") Long perfumeId);
 
-    List<Perfume> findByFragranceFamily(FragranceFamily family);
+    @Query(SUMMARY + "where b.id = :brandId")
+    List<PerfumeResponse> findSummariesByBrandId(@Param("brandId") Long brandId);
 
-    List<Perfume> findByGender(Gender gender);
+    @Query(SUMMARY + "where c.id = :categoryId")
+    List<PerfumeResponse> findSummariesByCategoryId(@Param("categoryId") Long categoryId);
 
-    List<Perfume> findByFeaturedTrue();
+    @Query(SUMMARY + "where p.discountedPrice between :min and :max")
+    List<PerfumeResponse> findSummariesByPriceBetween(@Param("min") BigDecimal min, @Param("max") BigDecimal max);
 
-    List<Perfume> findByBestsellerTrue();
+    @Query(SUMMARY + "where p.fragranceFamily = :family")
+    List<PerfumeResponse> findSummariesByFragranceFamily(@Param("family") FragranceFamily family);
 
-    @Query("select p from Perfume p where p.stockQuantity>0")
-    List<Perfume> findInStockQuantity();
+    @Query(SUMMARY + "where p.gender = :gender")
+    List<PerfumeResponse> findSummariesByGender(@Param("gender") Gender gender);
 
-    @Query("select p from Perfume p where p.discountPercent>0")
-    List<Perfume> findDiscountedPerfumes();
+    @Query(SUMMARY + "where p.isFeatured = true order by p.createdAt desc, p.id desc")
+    List<PerfumeResponse> findFeaturedSummaries(Pageable pageable);
 
-    @Query("select p from Perfume p order by p.createdAt desc")
-    Page<Perfume> findLatestPerfumes(Pageable pageable);
+    @Query(SUMMARY + "where p.isBestseller = true order by p.createdAt desc, p.id desc")
+    List<PerfumeResponse> findBestsellerSummaries(Pageable pageable);
 
-    @Query("select p from Perfume p where p.isFeatured = true or p.isBestseller = true order by p.createdAt desc")
-    List<Perfume> findPopularPerfumes();
+    @Query(SUMMARY + "where p.stockQuantity > 0 order by p.createdAt desc, p.id desc")
+    List<PerfumeResponse> findInStockSummaries(Pageable pageable);
 
-    @Query("select p from Perfume p where (p.brand.id = :brandId or p.category.id = :categoryId) and p.id != :excludeId")
-    List<Perfume> findSimilarPerfumes(@Param("brandId") Long brandId, @Param("categoryId") Long categoryId, @Param("excludeId") Long excludeId);
+    @Query(SUMMARY + "where p.discountPercent > 0 order by p.discountPercent desc, p.id desc")
+    List<PerfumeResponse> findDiscountedSummaries(Pageable pageable);
 
-    @Query("select p from Perfume p where " +
-            "(:search is null or lower(p.name) like lower(concat('%', :search, '%') ) or " +
+    @Query(SUMMARY + "where p.isFeatured = true or p.isBestseller = true order by p.createdAt desc, p.id desc")
+    List<PerfumeResponse> findPopularSummaries(Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Perfume p join fetch p.brand join fetch p.category order by p.id")
+    Stream<Perfume> streamAllForExport();
+
+    // Hər indeks öz namizədlərini verir: bir OR ilə birləşəndə planner GIN indekslərini istifadə edə bilmir
+    String SEARCH_CANDIDATES = "select p.id from products p where p.search_vector @@ websearch_to_tsquery('simple', :term) " +
+            "union select p.id from products p where p.name % :term " +
+            "union select p.id from products p where p.brand_id in (select b.id from brands b where b.name % :term)";
+
+    @Query(value = "select p.id, ts_rank(p.search_vector, websearch_to_tsquery('simple', :term)) + " +
+            "greatest(similarity(p.name, :term), similarity(b.name, :term)) as score " +
+            "from (" + SEARCH_CANDIDATES + ") c join products p on p.id = c.id join brands b on b.id = p.brand_id " +
+            "order by score desc, p.id",
+            countQuery = "select count(*) from (" + SEARCH_CANDIDATES + ") c",
+            nativeQuery = true)
+    Page<Object[]> searchRanked(@Param("term") String term, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"brand", "category"})
+    @Query("select p from Perfume p where lower(p.name) like lower(concat('%', :search, '%') ) or " +
             "lower(p.description) like lower(concat('%', :search, '%') ) or " +
-            "lower(p.brand.name) like lower(concat('%', :search, '%') ) ) and " +
+            "lower(p.brand.name) like lower(concat('%', :search, '%') )")
+    Page<Perfume> searchByKeyword(@Param("search") String search, Pageable pageable);
+
+    @Query("select p.id, p.name, p.isFeatured, p.isBestseller, " +
+            "(select count(f) from Favorite f where f.perfume = p), p.brand.id from Perfume p")
+    List<Object[]> findSuggestionRows();
+
+    @Query("select p.id, p.name, p.isFeatured, p.isBestseller, " +
+            "(select count(f) from Favorite f where f.perfume = p), p.brand.id from Perfume p where p.id in :ids")
+    List<Object[]> findSuggestionRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // Toplu səbət əməliyyatları üçün: id və stok, bir IN sorğusu ilə
+    @Query("select p.id, p.stockQuantity from Perfume p where p.id in :ids")
+    List<Object[]> findStockByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id, p.brand.id, p.category.id, p.gender, p.fragranceFamily, p.isFeatured, p.isBestseller, p.discountedPrice " +
+            "from Perfume p order by p.id")
+    List<Object[]> findIndexRows();
+
+    @Query("select p.id, p.brand.id, p.category.id, p.gender, p.fragranceFamily, p.isFeatured, p.isBestseller, p.discountedPrice " +
+            "from Perfume p where p.id in :ids order by p.id")
+    List<Object[]> findIndexRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"brand", "category"})
+    @Query("select p from Perfume p where " +
+            "(cast(:search as String) is null or lower(p.name) like lower(concat('%', cast(:search as String), '%') ) or " +
+            "lower(p.description) like lower(concat('%', cast(:search as String), '%') ) or " +
+            "lower(p.brand.name) like lower(concat('%', cast(:search as String), '%') ) ) and " +
             "(:brandId is null or p.brand.id = :brandId) and" +
             "(:categoryId is null or p.category.id=:categoryId) and" +
-            "(:minPrice is null or p.price >= :minPrice) and" +
-            "(:maxPrice is null or p.price <= :maxPrice) and" +
+            "(:minPrice is null or p.discountedPrice >= :minPrice) and" +
+            "(:maxPrice is null or p.discountedPrice <= :maxPrice) and" +
             "(:gender is null or p.gender = :gender) and" +
             "(:fragranceFamily is null or p.fragranceFamily = :fragranceFamily) and" +
             "(:featured is null or p.isFeatured = :featured) and" +
-            "(:bestSeller is null or p.isBestseller = :bestSeller)")
+            "(:bestseller is null or p.isBestseller = :bestseller)")
     List<Perfume> findWithFilters(
             @Param("search") String search,
             @Param("brandId") Long brandId,
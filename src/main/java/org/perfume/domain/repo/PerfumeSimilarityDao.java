@@ -0,0 +1,18 @@
+package org.perfume.domain.repo;
+
+import org.perfume.domain.entity.PerfumeSimilarity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PerfumeSimilarityDao extends JpaRepository<PerfumeSimilarity, Long> {
+
+    // Qonşu siyahısında bu məhsullardan biri olan məhsullar
+    @Query("select distinct s.perfumeId from PerfumeSimilarity s where s.similarId in :ids")
+    List<Long> findPerfumeIdsReferencing(@Param("ids") Collection<Long> ids);
+}
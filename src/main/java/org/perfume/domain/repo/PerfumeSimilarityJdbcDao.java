@@ -0,0 +1,50 @@
+package org.perfume.domain.repo;
+
+import lombok.RequiredArgsConstructor;
+import org.perfume.domain.entity.PerfumeSimilarity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Batched writes for the similarity table; the JPA identity id would force one insert per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PerfumeSimilarityJdbcDao {
+
+    private static final String INSERT =
+            "insert into perfume_similarities (perfume_id, similar_id, score, neighbour_rank) values (?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void replaceAll(List<PerfumeSimilarity> rows) {
+        jdbcTemplate.update("delete from perfume_similarities");
+        insert(rows);
+    }
+
+    @Transactional
+    public void replace(Collection<Long> perfumeIds, List<PerfumeSimilarity> rows) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("delete from perfume_similarities where perfume_id = any(?)");
+            ps.setArray(1, con.createArrayOf("bigint", perfumeIds.toArray()));
+            return ps;
+        });
+        insert(rows);
+    }
+
+    private void insert(List<PerfumeSimilarity> rows) {
+        jdbcTemplate.batchUpdate(INSERT, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getPerfumeId());
+            ps.setLong(2, row.getSimilarId());
+            ps.setDouble(3, row.getScore());
+            ps.setInt(4, row.getRank());
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package org.perfume.domain.repo;
+
+import jakarta.persistence.criteria.Predicate;
+import org.perfume.domain.entity.Perfume;
+import org.perfume.model.dto.request.ProductFilterRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class PerfumeSpecifications {
+
+    private PerfumeSpecifications() {
+    }
+
+    public static Specification<Perfume> all() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    // Scroll sorğusu brand və category-ni eyni sətirdə gətirsin, count sorğusuna toxunmur
+    public static Specification<Perfume> fetchBrandAndCategory() {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                root.fetch("brand");
+                root.fetch("category");
+            }
+            return cb.conjunction();
+        };
+    }
+
+    // findWithFilters ilə eyni şərtlər, keyset səhifələmə üçün
+    public static Specification<Perfume> matching(ProductFilterRequest filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.getSearch() != null && !filter.getSearch().isBlank()) {
+                String pattern = "%" + filter.getSearch().trim().toLowerCase() + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("name")), pattern),
+                        cb.like(cb.lower(root.get("description")), pattern),
+                        cb.like(cb.lower(root.join("brand").get("name")), pattern)
+                ));
+            }
+            if (filter.getBrandId() != null) {
+                predicates.add(cb.equal(root.get("brand").get("id"), filter.getBrandId()));
+            }
+            if (filter.getCategoryId() != null) {
+                predicates.add(cb.equal(root.get("category").get("id"), filter.getCategoryId()));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("discountedPrice"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("discountedPrice"), filter.getMaxPrice()));
+            }
+            if (filter.getGender() != null) {
+                predicates.add(cb.equal(root.get("gender"), filter.getGender()));
+            }
+            if (filter.getFragranceFamily() != null) {
+                predicates.add(cb.equal(root.get("fragranceFamily"), filter.getFragranceFamily()));
+            }
+            if (filter.getFeatured() != null) {
+                predicates.add(cb.equal(root.get("isFeatured"), filter.getFeatured()));
+            }
+            if (filter.getBestseller() != null) {
+                predicates.add(cb.equal(root.get("isBestseller"), filter.getBestseller()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
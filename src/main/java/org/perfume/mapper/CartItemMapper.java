@@ -5,7 +5,7 @@ import org.perfume.domain.entity.CartItem;
 import org.perfume.model.dto.response.CartItemResponse;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import org.perfume.model.money.Money;
 
 @Component
 @RequiredArgsConstructor
@@ -19,8 +19,7 @@ public class CartItemMapper implements EntityMapper<CartItem, CartItemResponse>
             return null;
         }
 
-        BigDecimal subtotal = entity.getPerfume().getDiscountedPrice()
-                .multiply(BigDecimal.valueOf(entity.getQuantity()));
+        Money subtotal = Money.ofMinor(Math.multiplyExact(entity.getPerfume().getDiscountedPriceMinor(), entity.getQuantity()));
 
         return new CartItemResponse(
                 entity.getId(),
@@ -2,10 +2,14 @@ package org.perfume.mapper;
 
 import lombok.RequiredArgsConstructor;
 import org.perfume.domain.entity.Cart;
+import org.perfume.domain.entity.CartItem;
+import org.perfume.model.dto.response.CartItemResponse;
 import org.perfume.model.dto.response.CartResponse;
+import org.perfume.model.money.Money;
 import org.springframework.stereotype.Component;
 
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -19,13 +23,22 @@ public class CartMapper implements EntityMapper<Cart, CartResponse> {
             return null;
         }
 
+        // Totals come from the item subtotals, so the items are walked once
+        List<CartItemResponse> items = new ArrayList<>(entity.getItems().size());
+        long totalMinor = 0;
+        int totalItems = 0;
+        for (CartItem item : entity.getItems()) {
+            CartItemResponse response = cartItemMapper.toDto(item);
+            items.add(response);
+            totalMinor = Math.addExact(totalMinor, response.getSubtotal().getMinor());
+            totalItems += response.getQuantity();
+        }
+
         return new CartResponse(
                 entity.getId(),
-                entity.getItems().stream()
-                        .map(cartItemMapper::toDto)
-                        .collect(Collectors.toList()),
-                entity.getTotalPrice(),
-                entity.getTotalItems()
+                items,
+                Money.ofMinor(totalMinor),
+                totalItems
         );
     }
 
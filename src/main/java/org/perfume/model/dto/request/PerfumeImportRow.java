@@ -0,0 +1,30 @@
+package org.perfume.model.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.perfume.model.enums.FragranceFamily;
+import org.perfume.model.enums.Gender;
+
+import java.math.BigDecimal;
+
+/**
+ * One supplier price-list row; brand and category are referenced by name.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PerfumeImportRow {
+    private String name;
+    private String description;
+    private String brand;
+    private String category;
+    private BigDecimal price;
+    private Integer discountPercent;
+    private Integer stockQuantity;
+    private Gender gender;
+    private FragranceFamily fragranceFamily;
+    private Boolean featured;
+    private Boolean bestseller;
+    private String imageUrl;
+}
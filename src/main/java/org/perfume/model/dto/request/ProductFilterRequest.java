@@ -25,4 +25,6 @@ public class ProductFilterRequest {
     private Integer size = 10;
     private String sortBy = "id";
     private String sortDirection = "asc";
+    private String cursor;
+    private boolean withCount;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package org.perfume.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.perfume.model.enums.BatchUpdateStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUpdateResult {
+    private Long id;
+    private Integer value;
+    private BatchUpdateStatus status;
+}
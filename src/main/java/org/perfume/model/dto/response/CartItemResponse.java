@@ -3,8 +3,8 @@ package org.perfume.model.dto.response;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.perfume.model.money.Money;
 
-import java.math.BigDecimal;
 
 @Data
 @NoArgsConstructor
@@ -13,5 +13,5 @@ public class CartItemResponse {
     private Long id;
     private PerfumeResponse perfume;
     private Integer quantity;
-    private BigDecimal subtotal;
+    private Money subtotal;
 }
\ No newline at end of file
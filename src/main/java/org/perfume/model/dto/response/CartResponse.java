@@ -4,8 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.util.List;
+import org.perfume.model.money.Money;
 
 @Data
 @NoArgsConstructor
@@ -13,6 +13,6 @@ import java.util.List;
 public class CartResponse {
     private Long id;
     private List<CartItemResponse> items;
-    private BigDecimal totalPrice;
+    private Money totalPrice;
     private int totalItems;
 }
\ No newline at end of file
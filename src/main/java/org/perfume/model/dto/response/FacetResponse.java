@@ -0,0 +1,47 @@
+package org.perfume.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.perfume.model.enums.FragranceFamily;
+import org.perfume.model.enums.Gender;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetResponse {
+    private long total;
+    private Map<Long, Long> brands;
+    private Map<Long, Long> categories;
+    private Map<Gender, Long> genders;
+    private Map<FragranceFamily, Long> fragranceFamilies;
+    private List<PriceBucket> priceBuckets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private BigDecimal min;
+        private BigDecimal max;
+        private long count;
+
+        /**
+         * Turns per-bucket counts into ranges; {@code counts} has one more entry than {@code bounds}.
+         */
+        public static List<PriceBucket> of(List<BigDecimal> bounds, long[] counts) {
+            List<PriceBucket> buckets = new ArrayList<>(counts.length);
+            for (int i = 0; i < counts.length; i++) {
+                buckets.add(new PriceBucket(
+                        i == 0 ? null : bounds.get(i - 1),
+                        i == bounds.size() ? null : bounds.get(i),
+                        counts[i]));
+            }
+            return buckets;
+        }
+    }
+}
@@ -3,8 +3,8 @@ package org.perfume.model.dto.response;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.perfume.model.money.Money;
 
-import java.math.BigDecimal;
 
 @Data
 @NoArgsConstructor
@@ -14,6 +14,6 @@ public class OrderItemResponse {
     private String productName;
     private String brandName;
     private Integer quantity;
-    private BigDecimal unitPrice;
-    private BigDecimal subtotal;
+    private Money unitPrice;
+    private Money subtotal;
 }
\ No newline at end of file
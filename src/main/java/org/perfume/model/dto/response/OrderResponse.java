@@ -5,9 +5,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.perfume.model.enums.OrderStatus;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import org.perfume.model.money.Money;
 
 @Data
 @NoArgsConstructor
@@ -15,7 +15,7 @@ import java.util.List;
 public class OrderResponse {
     private Long id;
     private List<OrderItemResponse> items;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private OrderStatus status;
     private String whatsappNumber;
     private String deliveryAddress;
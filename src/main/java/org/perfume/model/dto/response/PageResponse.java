@@ -17,4 +17,6 @@ public class PageResponse<T> {
     private int totalPages;
     private boolean last;
     private boolean first;
+    private String nextCursor;
+    private String prevCursor;
 }
\ No newline at end of file
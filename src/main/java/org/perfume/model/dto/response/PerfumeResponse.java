@@ -8,6 +8,8 @@ import org.perfume.model.enums.Gender;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -30,4 +32,39 @@ public class PerfumeResponse {
     private FragranceFamily fragranceFamily;
     private Gender gender;
     private boolean isFavorite;
-}
\ No newline at end of file
+
+    /**
+     * Listing projection used by the PerfumeDao summary queries. Description is not selected and
+     * brand/category only carry their id and name.
+     */
+    public PerfumeResponse(Long id, String name, BigDecimal price, BigDecimal discountedPrice, String imageUrl,
+                           Integer stockQuantity, LocalDateTime createdAt, LocalDateTime updatedAt,
+                           Long brandId, String brandName, Long categoryId, String categoryName,
+                           boolean isFeatured, boolean isBestseller, Integer discountPercent,
+                           FragranceFamily fragranceFamily, Gender gender) {
+        this(id, name, null, price, discountedPrice, imageUrl, stockQuantity, createdAt, updatedAt,
+                new BrandResponse(brandId, brandName, null, null),
+                new CategoryResponse(categoryId, categoryName, null),
+                isFeatured, isBestseller, discountPercent, fragranceFamily, gender, false);
+    }
+
+    /**
+     * Deep copy, including brand and category. Cached and snapshot DTOs are shared by every
+     * request, so callers that may mutate a response get their own.
+     */
+    public PerfumeResponse copy() {
+        return new PerfumeResponse(id, name, description, price, discountedPrice, imageUrl, stockQuantity,
+                createdAt, updatedAt,
+                brand == null ? null : new BrandResponse(brand.getId(), brand.getName(), brand.getDescription(), brand.getLogoUrl()),
+                category == null ? null : new CategoryResponse(category.getId(), category.getName(), category.getDescription()),
+                isFeatured, isBestseller, discountPercent, fragranceFamily, gender, isFavorite);
+    }
+
+    public static List<PerfumeResponse> copyAll(List<PerfumeResponse> perfumes) {
+        List<PerfumeResponse> copies = new ArrayList<>(perfumes.size());
+        for (PerfumeResponse perfume : perfumes) {
+            copies.add(perfume.copy());
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,13 @@
+package org.perfume.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PerfumeSearchResponse {
+    private PerfumeResponse perfume;
+    private double score;
+}
@@ -0,0 +1,8 @@
+package org.perfume.model.enums;
+
+public enum BatchUpdateStatus {
+    UPDATED,
+    UNCHANGED,
+    NOT_FOUND,
+    INVALID
+}
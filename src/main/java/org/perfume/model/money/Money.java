@@ -0,0 +1,92 @@
+package org.perfume.model.money;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact amount in minor units (qəpik, two decimals), held in a single long. Arithmetic is
+ * integer arithmetic that fails on overflow instead of wrapping, so totals never round or drift.
+ * Serializes to JSON as a plain decimal number, the same as the BigDecimal it replaces.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private final long minor;
+
+    private Money(long minor) {
+        this.minor = minor;
+    }
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    /**
+     * @throws ArithmeticException when the amount has more than two decimals or does not fit
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return ofMinor(minorOf(amount));
+    }
+
+    /**
+     * The amount in minor units, for code that sums many amounts as plain longs.
+     *
+     * @throws ArithmeticException when the amount has more than two decimals or does not fit
+     */
+    public static long minorOf(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Formats minor units the way {@link #toString()} does, without creating a Money or a BigDecimal.
+     */
+    public static String format(long minor) {
+        long units = minor / 100;
+        int cents = (int) Math.abs(minor % 100);
+        String sign = minor < 0 && units == 0 ? "-" : "";
+        return sign + units + (cents < 10 ? ".0" : ".") + cents;
+    }
+
+    public long getMinor() {
+        return minor;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    public Money times(int quantity) {
+        return ofMinor(Math.multiplyExact(minor, quantity));
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && minor == other.minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+
+    @Override
+    public String toString() {
+        return format(minor);
+    }
+}
@@ -3,10 +3,24 @@ package org.perfume.service;
 import org.perfume.model.dto.request.CartItemRequest;
 import org.perfume.model.dto.response.CartResponse;
 
+import java.util.List;
+
 public interface CartService {
     CartResponse getCart(Long userId);
     CartResponse addToCart(Long userId, CartItemRequest request);
+
+    /**
+     * Adds several lines at once, e.g. a mobile sync or a guest cart merged on login. Quantities
+     * add up with what the cart already holds; stock is checked for the resulting quantities and
+     * nothing is applied if any line fails.
+     */
+    CartResponse addToCart(Long userId, List<CartItemRequest> requests);
     CartResponse updateCartItem(Long userId, Long productId, Integer quantity);
     void removeFromCart(Long userId, Long productId);
     void clearCart(Long userId);
+
+    /**
+     * Writes any buffered changes to the user's cart to the database before returning.
+     */
+    void flush(Long userId);
 }
\ No newline at end of file
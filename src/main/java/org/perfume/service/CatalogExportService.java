@@ -0,0 +1,9 @@
+package org.perfume.service;
+
+import java.io.OutputStream;
+
+public interface CatalogExportService {
+    void exportNdjson(OutputStream out);
+
+    void exportCsv(OutputStream out);
+}
@@ -0,0 +1,11 @@
+package org.perfume.service;
+
+import org.perfume.model.dto.response.CatalogImportResponse;
+
+import java.io.InputStream;
+
+public interface CatalogImportService {
+    CatalogImportResponse importCsv(InputStream in);
+
+    CatalogImportResponse importNdjson(InputStream in);
+}
@@ -12,6 +12,7 @@ public interface OrderService {
     CheckoutResponse checkout(Long userId, OrderRequest request);
     OrderResponse getOrder(Long userId, Long orderId);
     PageResponse<OrderResponse> getUserOrders(Long userId, int page, int size);
+    PageResponse<OrderResponse> getUserOrders(Long userId, String cursor, int size, boolean withCount);
     OrderResponse updateOrderStatus(Long orderId, OrderStatus status);
     List<OrderResponse> getOrdersByStatus(OrderStatus status);
     void cancelOrder(Long userId, Long orderId);
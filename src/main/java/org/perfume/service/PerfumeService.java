@@ -2,13 +2,18 @@ package org.perfume.service;
 
 import org.perfume.model.dto.request.PerfumeRequest;
 import org.perfume.model.dto.request.ProductFilterRequest;
+import org.perfume.model.dto.response.BatchUpdateResult;
+import org.perfume.model.dto.response.FacetResponse;
 import org.perfume.model.dto.response.PageResponse;
 import org.perfume.model.dto.response.PerfumeResponse;
+import org.perfume.model.dto.response.PerfumeSearchResponse;
+import org.perfume.model.dto.response.SuggestionResponse;
 import org.perfume.model.enums.FragranceFamily;
 import org.perfume.model.enums.Gender;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 public interface PerfumeService {
     PerfumeResponse save(PerfumeRequest request);
@@ -23,6 +28,10 @@ public interface PerfumeService {
 
     List<PerfumeResponse> searchPerfumesByName(String name);
 
+    PageResponse<PerfumeSearchResponse> searchPerfumes(String query, int page, int size);
+
+    List<SuggestionResponse> suggest(String prefix, int limit);
+
     List<PerfumeResponse> getPerfumesByBrand(Long brandId);
 
     List<PerfumeResponse> getPerfumesByCategory(Long categoryId);
@@ -43,16 +52,26 @@ public interface PerfumeService {
 
     PageResponse<PerfumeResponse> getLatestPerfumes(int page, int size);
 
+    PageResponse<PerfumeResponse> getLatestPerfumes(String cursor, int size, boolean withCount);
+
     List<PerfumeResponse> getPopularPerfumes();
 
     List<PerfumeResponse> getSimilarPerfumes(Long perfumeId);
 
     List<PerfumeResponse> getPerfumesWithFilters(ProductFilterRequest filterRequest);
 
+    PageResponse<PerfumeResponse> scrollPerfumesWithFilters(ProductFilterRequest filterRequest);
+
+    FacetResponse getFacets(ProductFilterRequest filterRequest);
+
     PerfumeResponse updateStock(Long id, Integer newStock);
 
     PerfumeResponse updateDiscount(Long id, Integer discountPercent);
 
+    List<BatchUpdateResult> updateStock(Map<Long, Integer> stockById);
+
+    List<BatchUpdateResult> updateDiscount(Map<Long, Integer> discountById);
+
     PerfumeResponse toggleFeatured(Long id);
 
     PerfumeResponse toggleBestseller(Long id);
@@ -0,0 +1,89 @@
+package org.perfume.service.cache;
+
+import jakarta.annotation.PostConstruct;
+import org.perfume.service.event.BrandChangedEvent;
+import org.perfume.service.event.CategoryChangedEvent;
+import org.perfume.service.event.PerfumeChangedEvent;
+import org.perfume.service.event.PerfumeChangedEvent.ChangeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters for catalog data, bumped after each committed write. Version strings start
+ * with the startup time, so stamps handed out before a restart never match afterwards.
+ * <p>
+ * The counters are per instance: a write served by another node never bumps them here. Every
+ * stamp therefore also carries the current {@code catalog.etag.max-age} window, so an instance
+ * that missed a write stops answering 304 for it once the window rolls over.
+ */
+@Component
+public class CatalogVersions {
+
+    // Changes that can add a perfume to, or remove it from, a brand or category
+    private static final Set<ChangeType> ASSORTMENT_CHANGES = EnumSet.of(ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED);
+
+    @Value("${catalog.etag.max-age:60s}")
+    private Duration maxAge;
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong perfumes = new AtomicLong();
+    private final AtomicLong assortment = new AtomicLong();
+    private final AtomicLong brands = new AtomicLong();
+    private final AtomicLong categories = new AtomicLong();
+    private final Map<Long, Long> perfumeVersions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (maxAge.toMillis() < 1) {
+            throw new IllegalStateException("catalog.etag.max-age must be positive, was " + maxAge);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPerfumeChanged(PerfumeChangedEvent event) {
+        long version = perfumes.incrementAndGet();
+        event.getPerfumeIds().forEach(id -> perfumeVersions.put(id, version));
+        if (ASSORTMENT_CHANGES.contains(event.getType())) {
+            assortment.incrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        brands.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categories.incrementAndGet();
+    }
+
+    // Perfume payloads embed brand and category names
+    public String perfumes() {
+        return prefix() + "." + perfumes.get() + "." + brands.get() + "." + categories.get();
+    }
+
+    public String perfume(Long id) {
+        return prefix() + "." + id + "." + perfumeVersions.getOrDefault(id, 0L) + "." + brands.get() + "." + categories.get();
+    }
+
+    public String brands() {
+        return prefix() + "." + brands.get() + "." + assortment.get();
+    }
+
+    public String categories() {
+        return prefix() + "." + categories.get() + "." + assortment.get();
+    }
+
+    private String prefix() {
+        return epoch + "." + System.currentTimeMillis() / maxAge.toMillis();
+    }
+}
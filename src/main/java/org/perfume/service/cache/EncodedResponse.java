@@ -0,0 +1,46 @@
+package org.perfume.service.cache;
+
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized once to JSON, plus a gzip copy when the body is large enough for
+ * compression to pay off.
+ */
+@Getter
+public class EncodedResponse {
+
+    private final byte[] json;
+    private final byte[] gzip;
+
+    private EncodedResponse(byte[] json, byte[] gzip) {
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    public static EncodedResponse of(byte[] json, int gzipMinSize) {
+        return new EncodedResponse(json, json.length >= gzipMinSize ? gzip(json) : null);
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    public int weight() {
+        return json.length + (gzip != null ? gzip.length : 0);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
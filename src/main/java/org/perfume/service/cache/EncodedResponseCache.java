@@ -0,0 +1,77 @@
+package org.perfume.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.perfume.service.PerfumeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Serialized bodies for single perfumes, so hot reads skip Jackson and go to the socket as stored
+ * bytes. {@link PerfumeCacheInvalidator} evicts entries right after the DTO cache they are encoded
+ * from; an encode that overlapped the eviction is dropped again through {@link InvalidationGuard},
+ * and every entry expires after {@code catalog.response-cache.ttl}.
+ */
+@Component
+public class EncodedResponseCache {
+
+    private final PerfumeService perfumeService;
+    private final InvalidationGuard invalidationGuard;
+    private final ObjectMapper objectMapper;
+    private final int gzipMinSize;
+    private final Cache<Long, EncodedResponse> perfumes;
+
+    public EncodedResponseCache(PerfumeService perfumeService,
+                                InvalidationGuard invalidationGuard,
+                                ObjectMapper objectMapper,
+                                @Value("${catalog.response-cache.max-size-mb:64}") long maxSizeMb,
+                                @Value("${catalog.response-cache.ttl:10m}") Duration ttl,
+                                @Value("${catalog.response-cache.gzip-min-size:1024}") int gzipMinSize) {
+        this.perfumeService = perfumeService;
+        this.invalidationGuard = invalidationGuard;
+        this.objectMapper = objectMapper;
+        this.gzipMinSize = gzipMinSize;
+        this.perfumes = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((Long id, EncodedResponse response) -> response.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public EncodedResponse perfume(Long id) {
+        return get(perfumes, id, key -> encode(perfumeService.findById(key)));
+    }
+
+    private EncodedResponse encode(Object body) {
+        try {
+            return EncodedResponse.of(objectMapper.writeValueAsBytes(body), gzipMinSize);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    public void evictPerfumes(Collection<Long> ids) {
+        perfumes.invalidateAll(ids);
+    }
+
+    public void evictAll() {
+        perfumes.invalidateAll();
+    }
+
+    // Same rule as InvalidationGuard#get: an entry encoded across an eviction may hold the old DTO
+    private <K> EncodedResponse get(Cache<K, EncodedResponse> cache, K key, Function<K, EncodedResponse> loader) {
+        long seen = invalidationGuard.current();
+        EncodedResponse response = cache.get(key, loader);
+        if (invalidationGuard.invalidatedSince(seen)) {
+            cache.invalidate(key);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,9 @@
+package org.perfume.service.cache;
+
+public enum HomepageCollection {
+    FEATURED,
+    BESTSELLER,
+    POPULAR,
+    DISCOUNTED,
+    IN_STOCK
+}
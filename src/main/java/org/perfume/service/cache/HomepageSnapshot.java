@@ -0,0 +1,22 @@
+package org.perfume.service.cache;
+
+import org.perfume.model.dto.response.PerfumeResponse;
+
+import java.util.List;
+
+public class HomepageSnapshot {
+
+    private final List<PerfumeResponse> perfumes;
+
+    public HomepageSnapshot(List<PerfumeResponse> perfumes) {
+        this.perfumes = List.copyOf(perfumes);
+    }
+
+    /**
+     * The DTOs are mutable and the snapshot is shared by every request, so each caller gets its own
+     * copies.
+     */
+    public List<PerfumeResponse> getPerfumes() {
+        return PerfumeResponse.copyAll(perfumes);
+    }
+}
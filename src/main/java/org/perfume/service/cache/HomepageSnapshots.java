@@ -0,0 +1,120 @@
+package org.perfume.service.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.perfume.domain.repo.PerfumeDao;
+import org.perfume.model.dto.response.PerfumeResponse;
+import org.perfume.service.event.BrandChangedEvent;
+import org.perfume.service.event.CategoryChangedEvent;
+import org.perfume.service.event.PerfumeChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Immutable, precomputed homepage collections. Reads are a single volatile pointer read;
+ * catalog writes, including brand and category renames the summaries embed, schedule a debounced
+ * background rebuild.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HomepageSnapshots {
+
+    private final PerfumeDao perfumeDao;
+
+    @Value("${catalog.homepage.max-size:24}")
+    private int maxSize;
+
+    @Value("${catalog.homepage.refresh-debounce:2s}")
+    private Duration refreshDebounce;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "homepage-snapshots");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private volatile Map<HomepageCollection, HomepageSnapshot> snapshots;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        refreshPending.set(true);
+        scheduler.execute(this::rebuild);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPerfumeChanged(PerfumeChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (refreshPending.compareAndSet(false, true)) {
+            scheduler.schedule(this::rebuild, refreshDebounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the current snapshot, loading it synchronously only before the first build finished.
+     */
+    public HomepageSnapshot get(HomepageCollection collection) {
+        Map<HomepageCollection, HomepageSnapshot> current = snapshots;
+        if (current != null) {
+            return current.get(collection);
+        }
+        return new HomepageSnapshot(load(collection, PageRequest.of(0, maxSize)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void rebuild() {
+        refreshPending.set(false);
+        try {
+            Pageable limit = PageRequest.of(0, maxSize);
+            Map<HomepageCollection, HomepageSnapshot> fresh = new EnumMap<>(HomepageCollection.class);
+            for (HomepageCollection collection : HomepageCollection.values()) {
+                fresh.put(collection, new HomepageSnapshot(load(collection, limit)));
+            }
+            snapshots = fresh;
+        } catch (RuntimeException e) {
+            log.error("Homepage snapshot rebuild failed", e);
+        }
+    }
+
+    private List<PerfumeResponse> load(HomepageCollection collection, Pageable limit) {
+        return switch (collection) {
+            case FEATURED -> perfumeDao.findFeaturedSummaries(limit);
+            case BESTSELLER -> perfumeDao.findBestsellerSummaries(limit);
+            case POPULAR -> perfumeDao.findPopularSummaries(limit);
+            case DISCOUNTED -> perfumeDao.findDiscountedSummaries(limit);
+            case IN_STOCK -> perfumeDao.findInStockSummaries(limit);
+        };
+    }
+}
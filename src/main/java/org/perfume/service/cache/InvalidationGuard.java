@@ -0,0 +1,57 @@
+package org.perfume.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through caching that does not resurrect invalidated rows. A load that started before an
+ * invalidation may have read the row as it was before the write committed, and its put can land
+ * after the eviction; such an entry is dropped again instead of living out its TTL.
+ */
+@Component
+@RequiredArgsConstructor
+public class InvalidationGuard {
+
+    private final CacheManager cacheManager;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Must be called before evicting, so every load overlapping the eviction sees a newer count.
+     */
+    public void invalidating() {
+        invalidations.incrementAndGet();
+    }
+
+    public long current() {
+        return invalidations.get();
+    }
+
+    public boolean invalidatedSince(long seen) {
+        return invalidations.get() != seen;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, Object key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        Cache.ValueWrapper hit = cache.get(key);
+        if (hit != null) {
+            return (T) hit.get();
+        }
+
+        long seen = current();
+        T value = loader.get();
+        cache.put(key, value);
+        if (invalidatedSince(seen)) {
+            cache.evict(key);
+        }
+        return value;
+    }
+}
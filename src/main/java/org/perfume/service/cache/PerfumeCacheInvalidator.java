@@ -0,0 +1,66 @@
+package org.perfume.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.perfume.config.CacheConfig;
+import org.perfume.service.event.BrandChangedEvent;
+import org.perfume.service.event.CategoryChangedEvent;
+import org.perfume.service.event.PerfumeChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached perfume responses once the write that changed them has committed. Loads that
+ * overlap an eviction go through {@link InvalidationGuard}, so they cannot keep the pre-commit
+ * row in the cache either.
+ */
+@Component
+@RequiredArgsConstructor
+public class PerfumeCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final InvalidationGuard invalidationGuard;
+    private final EncodedResponseCache encodedResponseCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPerfumeChanged(PerfumeChangedEvent event) {
+        invalidationGuard.invalidating();
+        Cache perfumes = cacheManager.getCache(CacheConfig.PERFUMES);
+        if (perfumes != null) {
+            event.getPerfumeIds().forEach(perfumes::evict);
+        }
+
+        // After the DTO cache, so a reload cannot re-encode the stale DTO
+        encodedResponseCache.evictPerfumes(event.getPerfumeIds());
+
+        // Similar lists embed other perfumes, so any change can make them stale
+        clear(CacheConfig.SIMILAR_PERFUMES);
+    }
+
+    // Perfume payloads embed brand and category names
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        clearAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        clearAll();
+    }
+
+    private void clearAll() {
+        invalidationGuard.invalidating();
+        clear(CacheConfig.PERFUMES);
+        clear(CacheConfig.SIMILAR_PERFUMES);
+        // After the DTO cache, as for single perfumes
+        encodedResponseCache.evictAll();
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
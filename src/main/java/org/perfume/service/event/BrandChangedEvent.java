@@ -0,0 +1,17 @@
+package org.perfume.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BrandChangedEvent {
+
+    private final Long brandId;
+    private final ChangeType type;
+
+    public enum ChangeType {
+        SAVED,
+        DELETED
+    }
+}
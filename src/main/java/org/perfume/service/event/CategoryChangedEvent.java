@@ -0,0 +1,17 @@
+package org.perfume.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+    private final ChangeType type;
+
+    public enum ChangeType {
+        SAVED,
+        DELETED
+    }
+}
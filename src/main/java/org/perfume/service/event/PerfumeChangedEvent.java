@@ -0,0 +1,28 @@
+package org.perfume.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+public class PerfumeChangedEvent {
+
+    private final Set<Long> perfumeIds;
+    private final ChangeType type;
+
+    public static PerfumeChangedEvent of(Long perfumeId, ChangeType type) {
+        return new PerfumeChangedEvent(Set.of(perfumeId), type);
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        STOCK,
+        DISCOUNT,
+        FEATURED,
+        BESTSELLER,
+        DELETED
+    }
+}
@@ -9,6 +9,9 @@ import org.perfume.mapper.BrandMapper;
 import org.perfume.model.dto.request.BrandRequest;
 import org.perfume.model.dto.response.BrandResponse;
 import org.perfume.service.BrandService;
+import org.perfume.service.event.BrandChangedEvent;
+import org.perfume.service.event.BrandChangedEvent.ChangeType;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +25,7 @@ public class BrandServiceImpl implements BrandService {
 
     private final BrandDao brandDao;
     private final BrandMapper brandMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public BrandResponse save(BrandRequest request) {
@@ -29,8 +33,9 @@ public class BrandServiceImpl implements BrandService {
             throw new AlreadyExistsException("Brand with name " + request.getName() + " already exists");
         }
 
-        Brand brand = brandMapper.toEntity(request);
-        return brandMapper.toDto(brandDao.save(brand));
+        Brand brand = brandDao.save(brandMapper.toEntity(request));
+        eventPublisher.publishEvent(new BrandChangedEvent(brand.getId(), ChangeType.SAVED));
+        return brandMapper.toDto(brand);
     }
 
     @Override
@@ -46,7 +51,9 @@ public class BrandServiceImpl implements BrandService {
         brand.setDescription(request.getDescription());
         brand.setLogoUrl(request.getLogoUrl());
 
-        return brandMapper.toDto(brandDao.save(brand));
+        Brand updatedBrand = brandDao.save(brand);
+        eventPublisher.publishEvent(new BrandChangedEvent(id, ChangeType.SAVED));
+        return brandMapper.toDto(updatedBrand);
     }
 
     @Override
@@ -55,6 +62,7 @@ public class BrandServiceImpl implements BrandService {
             throw new NotFoundException("Brand not found");
         }
         brandDao.deleteById(id);
+        eventPublisher.publishEvent(new BrandChangedEvent(id, ChangeType.DELETED));
     }
 
     @Override
@@ -0,0 +1,62 @@
+package org.perfume.service.impl;
+
+import org.perfume.exception.InvalidInputException;
+import org.perfume.exception.NotFoundException;
+import org.perfume.model.dto.request.CartItemRequest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Validation shared by the cart backends for multi-item adds.
+ */
+final class CartBatch {
+
+    private CartBatch() {
+    }
+
+    /**
+     * Quantity to add per perfume, with repeated lines for the same perfume summed.
+     */
+    static Map<Long, Integer> quantities(List<CartItemRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidInputException("No cart items given");
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartItemRequest request : requests) {
+            if (request.getProductId() == null || request.getQuantity() == null || request.getQuantity() < 1) {
+                throw new InvalidInputException("Each cart item needs a product id and a quantity of at least 1");
+            }
+            quantities.merge(request.getProductId(), request.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /**
+     * Checks that every perfume exists and has stock for what the cart will hold after the add.
+     *
+     * @param stock  stock per perfume id, missing for unknown perfumes
+     * @param inCart quantity already in the cart per perfume id
+     */
+    static void validate(Map<Long, Integer> toAdd, Map<Long, Integer> stock, Map<Long, Integer> inCart) {
+        Set<Long> missing = new TreeSet<>(toAdd.keySet());
+        missing.removeAll(stock.keySet());
+        if (!missing.isEmpty()) {
+            throw new NotFoundException("Products not found: " + missing);
+        }
+
+        Set<Long> understocked = new TreeSet<>();
+        toAdd.forEach((perfumeId, quantity) -> {
+            int resulting = quantity + inCart.getOrDefault(perfumeId, 0);
+            if (stock.get(perfumeId) == null || stock.get(perfumeId) < resulting) {
+                understocked.add(perfumeId);
+            }
+        });
+        if (!understocked.isEmpty()) {
+            throw new InvalidInputException("Not enough stock for products: " + understocked);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.perfume.domain.entity.Perfume;
 import org.perfume.domain.entity.User;
 import org.perfume.domain.repo.CartDao;
 import org.perfume.domain.repo.CartItemDao;
+import org.perfume.domain.repo.CartJdbcDao;
 import org.perfume.domain.repo.PerfumeDao;
 import org.perfume.domain.repo.UserDao;
 import org.perfume.exception.InvalidInputException;
@@ -14,17 +15,26 @@ import org.perfume.exception.NotFoundException;
 import org.perfume.mapper.CartMapper;
 import org.perfume.model.dto.request.CartItemRequest;
 import org.perfume.model.dto.response.CartResponse;
+import org.perfume.model.money.Money;
 import org.perfume.service.CartService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 @Service
+@ConditionalOnProperty(name = "catalog.cart.store", havingValue = "database", matchIfMissing = true)
 @RequiredArgsConstructor
 @Transactional
 public class CartServiceImpl implements CartService {
 
     private final CartDao cartDao;
     private final CartItemDao cartItemDao;
+    private final CartJdbcDao cartJdbcDao;
     private final UserDao userDao;
     private final PerfumeDao perfumeDao;
     private final CartMapper cartMapper;
@@ -32,39 +42,73 @@ public class CartServiceImpl implements CartService {
     @Override
     @Transactional(readOnly = true)
     public CartResponse getCart(Long userId) {
-        Cart cart = getOrCreateCart(userId);
-        return cartMapper.toDto(cart);
+        // Read-only: a user without a cart sees an empty one, it is created on the first write
+        return cartDao.findByUserIdWithItems(userId)
+                .map(cartMapper::toDto)
+                .orElseGet(() -> {
+                    if (!userDao.existsById(userId)) {
+                        throw new NotFoundException("User not found");
+                    }
+                    return new CartResponse(null, List.of(), Money.ZERO, 0);
+                });
     }
 
     @Override
     public CartResponse addToCart(Long userId, CartItemRequest request) {
         Cart cart = getOrCreateCart(userId);
-        Perfume perfume = perfumeDao.findById(request.getProductId())
-                .orElseThrow(() -> new NotFoundException("Product not found"));
+        Optional<CartItem> existing = findItem(cart, request.getProductId());
+        Perfume perfume = existing.isPresent()
+                ? existing.get().getPerfume()
+                : perfumeDao.findById(request.getProductId())
+                        .orElseThrow(() -> new NotFoundException("Product not found"));
 
         if (perfume.getStockQuantity() < request.getQuantity()) {
             throw new InvalidInputException("Not enough stock");
         }
 
-        CartItem cartItem = cartItemDao.findByCartIdAndPerfumeId(cart.getId(), perfume.getId())
-                .orElse(new CartItem());
-
-        if (cartItem.getId() == null) {
+        if (existing.isPresent()) {
+            CartItem cartItem = existing.get();
+            cartItem.setQuantity(cartItem.getQuantity() + request.getQuantity());
+        } else {
+            CartItem cartItem = new CartItem();
             cartItem.setCart(cart);
             cartItem.setPerfume(perfume);
             cartItem.setQuantity(request.getQuantity());
-        } else {
-            cartItem.setQuantity(cartItem.getQuantity() + request.getQuantity());
+            cart.getItems().add(cartItemDao.save(cartItem));
         }
 
-        cartItemDao.save(cartItem);
         return cartMapper.toDto(cart);
     }
 
+    @Override
+    public CartResponse addToCart(Long userId, List<CartItemRequest> requests) {
+        Map<Long, Integer> toAdd = CartBatch.quantities(requests);
+        Long cartId = cartDao.findIdByUserId(userId).orElseGet(() -> {
+            if (!userDao.existsById(userId)) {
+                throw new NotFoundException("User not found");
+            }
+            return cartJdbcDao.ensureCart(userId);
+        });
+
+        Map<Long, Integer> stock = new HashMap<>();
+        Map<Long, Integer> inCart = new HashMap<>();
+        for (Object[] row : cartItemDao.findStockAndCartQuantities(cartId, toAdd.keySet())) {
+            stock.put((Long) row[0], (Integer) row[1]);
+            if (row[2] != null) {
+                inCart.put((Long) row[0], (Integer) row[2]);
+            }
+        }
+        CartBatch.validate(toAdd, stock, inCart);
+
+        cartJdbcDao.addItems(cartId, toAdd);
+        // The cart entity was never loaded in this session, so this reads the upserted lines
+        return cartMapper.toDto(cartDao.findByUserIdWithItems(userId).orElseThrow());
+    }
+
     @Override
     public CartResponse updateCartItem(Long userId, Long productId, Integer quantity) {
         Cart cart = getOrCreateCart(userId);
-        CartItem cartItem = cartItemDao.findByCartIdAndPerfumeId(cart.getId(), productId)
+        CartItem cartItem = findItem(cart, productId)
                 .orElseThrow(() -> new NotFoundException("Cart item not found"));
 
         if (cartItem.getPerfume().getStockQuantity() < quantity) {
@@ -72,31 +116,44 @@ public class CartServiceImpl implements CartService {
         }
 
         cartItem.setQuantity(quantity);
-        cartItemDao.save(cartItem);
         return cartMapper.toDto(cart);
     }
 
     @Override
     public void removeFromCart(Long userId, Long productId) {
-        Cart cart = getOrCreateCart(userId);
-        cartItemDao.deleteByCartIdAndPerfumeId(cart.getId(), productId);
+        cartDao.findByUserIdWithItems(userId)
+                .ifPresent(cart -> cart.getItems().removeIf(item -> item.getPerfume().getId().equals(productId)));
     }
 
     @Override
     public void clearCart(Long userId) {
-        Cart cart = getOrCreateCart(userId);
-        cartItemDao.deleteByCartId(cart.getId());
+        cartDao.findByUserId(userId)
+                .ifPresent(cart -> cartItemDao.deleteAllByCartId(cart.getId()));
     }
 
-    private Cart getOrCreateCart(Long userId) {
-        User user = userDao.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+    @Override
+    public void flush(Long userId) {
+        // Every write is already committed with its request
+    }
 
-        return cartDao.findUserId(userId)
+    /**
+     * Loads the cart with its items, perfumes, brands and categories in one query; the user is
+     * only looked up when a cart has to be created.
+     */
+    private Cart getOrCreateCart(Long userId) {
+        return cartDao.findByUserIdWithItems(userId)
                 .orElseGet(() -> {
+                    User user = userDao.findById(userId)
+                            .orElseThrow(() -> new NotFoundException("User not found"));
                     Cart newCart = new Cart();
                     newCart.setUser(user);
                     return cartDao.save(newCart);
                 });
     }
+
+    private Optional<CartItem> findItem(Cart cart, Long productId) {
+        return cart.getItems().stream()
+                .filter(item -> item.getPerfume().getId().equals(productId))
+                .findFirst();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package org.perfume.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.perfume.domain.entity.Perfume;
+import org.perfume.domain.repo.PerfumeDao;
+import org.perfume.mapper.PerfumeMapper;
+import org.perfume.model.dto.response.PerfumeResponse;
+import org.perfume.service.CatalogExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CatalogExportServiceImpl implements CatalogExportService {
+
+    private static final String CSV_HEADER = "id,name,brand,category,price,discounted_price,discount_percent," +
+            "stock_quantity,gender,fragrance_family,featured,bestseller,image_url";
+
+    private final PerfumeDao perfumeDao;
+    private final PerfumeMapper perfumeMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${catalog.export.clear-interval:500}")
+    private int clearInterval;
+
+    @PostConstruct
+    public void init() {
+        if (clearInterval < 1) {
+            throw new IllegalStateException("catalog.export.clear-interval must be at least 1, was " + clearInterval);
+        }
+    }
+
+    @Override
+    public void exportNdjson(OutputStream out) {
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            int written = export(perfume -> writer.write(perfumeMapper.toDto(perfume)));
+            writer.flush();
+            if (written > 0) {
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void exportCsv(OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            writer.write(CSV_HEADER);
+            export(perfume -> writeCsvRow(writer, perfumeMapper.toDto(perfume)));
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int export(RowWriter rowWriter) throws IOException {
+        try (Stream<Perfume> perfumes = perfumeDao.streamAllForExport()) {
+            Iterator<Perfume> iterator = perfumes.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                rowWriter.write(iterator.next());
+                if (++written % clearInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+            return written;
+        }
+    }
+
+    // The header is the first record, so every row starts with the separator and none trails
+    private void writeCsvRow(Writer writer, PerfumeResponse perfume) throws IOException {
+        writer.write('\n');
+        writer.write(String.join(",",
+                String.valueOf(perfume.getId()),
+                csv(perfume.getName()),
+                csv(perfume.getBrand().getName()),
+                csv(perfume.getCategory().getName()),
+                csv(perfume.getPrice()),
+                csv(perfume.getDiscountedPrice()),
+                csv(perfume.getDiscountPercent()),
+                csv(perfume.getStockQuantity()),
+                csv(perfume.getGender()),
+                csv(perfume.getFragranceFamily()),
+                String.valueOf(perfume.isFeatured()),
+                String.valueOf(perfume.isBestseller()),
+                csv(perfume.getImageUrl())
+        ));
+    }
+
+    // Missing values are empty fields, which the catalog import reads back as null
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        return value instanceof Enum<?> constant ? constant.name() : value.toString();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Perfume perfume) throws IOException;
+    }
+}
@@ -0,0 +1,373 @@
+package org.perfume.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.perfume.domain.entity.Brand;
+import org.perfume.domain.entity.Category;
+import org.perfume.domain.entity.Perfume;
+import org.perfume.domain.repo.BrandDao;
+import org.perfume.domain.repo.CategoryDao;
+import org.perfume.domain.repo.PerfumeJdbcDao;
+import org.perfume.exception.InvalidInputException;
+import org.perfume.model.dto.request.PerfumeImportRow;
+import org.perfume.model.dto.response.CatalogImportResponse;
+import org.perfume.model.enums.FragranceFamily;
+import org.perfume.model.enums.Gender;
+import org.perfume.service.CatalogImportService;
+import org.perfume.service.event.PerfumeChangedEvent;
+import org.perfume.service.event.PerfumeChangedEvent.ChangeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams supplier price lists into the catalog. Brand and category names are resolved from maps
+ * loaded once per import, and rows are upserted by name in chunks of
+ * {@code catalog.import.chunk-size}, each chunk in its own transaction. A chunk the database
+ * rejects is retried row by row, so one bad row only fails itself.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final BrandDao brandDao;
+    private final CategoryDao categoryDao;
+    private final PerfumeJdbcDao perfumeJdbcDao;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${catalog.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Override
+    public CatalogImportResponse importCsv(InputStream in) {
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            CsvReader csv = new CsvReader(reader);
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new InvalidInputException("CSV file is empty");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(), i);
+            }
+            if (!columns.containsKey("name")) {
+                throw new InvalidInputException("CSV header must contain a name column");
+            }
+
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                long line = csv.recordLine();
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                try {
+                    run.add(line, toRow(record, columns));
+                } catch (InvalidInputException e) {
+                    run.fail(line, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return run.finish();
+    }
+
+    @Override
+    public CatalogImportResponse importNdjson(InputStream in) {
+        ImportRun run = new ImportRun();
+        ObjectReader rowReader = objectMapper.readerFor(PerfumeImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String text;
+            long line = 0;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    run.add(line, rowReader.readValue(text));
+                } catch (JsonProcessingException e) {
+                    run.fail(line, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return run.finish();
+    }
+
+    private static PerfumeImportRow toRow(List<String> record, Map<String, Integer> columns) {
+        Function<String, String> value = column -> {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size() || record.get(index).isBlank()) {
+                return null;
+            }
+            return record.get(index).trim();
+        };
+
+        PerfumeImportRow row = new PerfumeImportRow();
+        row.setName(value.apply("name"));
+        row.setDescription(value.apply("description"));
+        row.setBrand(value.apply("brand"));
+        row.setCategory(value.apply("category"));
+        row.setImageUrl(value.apply("image_url"));
+        row.setPrice(parse("price", value.apply("price"), BigDecimal::new));
+        row.setDiscountPercent(parse("discount_percent", value.apply("discount_percent"), Integer::valueOf));
+        row.setStockQuantity(parse("stock_quantity", value.apply("stock_quantity"), Integer::valueOf));
+        row.setGender(parse("gender", value.apply("gender"), v -> Gender.valueOf(v.toUpperCase())));
+        row.setFragranceFamily(parse("fragrance_family", value.apply("fragrance_family"), v -> FragranceFamily.valueOf(v.toUpperCase())));
+        row.setFeatured(parse("featured", value.apply("featured"), Boolean::valueOf));
+        row.setBestseller(parse("bestseller", value.apply("bestseller"), Boolean::valueOf));
+        return row;
+    }
+
+    private static <T> T parse(String column, String value, Function<String, T> parser) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Invalid value for " + column + ": '" + value + "'");
+        }
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    /**
+     * State of one import: lookup maps, the pending chunk and the running report.
+     */
+    private final class ImportRun {
+
+        private final long started = System.currentTimeMillis();
+        private final Map<String, Brand> brands = brandDao.findAll().stream()
+                .collect(Collectors.toMap(brand -> key(brand.getName()), Function.identity(), (a, b) -> a));
+        private final Map<String, Category> categories = categoryDao.findAll().stream()
+                .collect(Collectors.toMap(category -> key(category.getName()), Function.identity(), (a, b) -> a));
+        private final Map<String, Long> chunkLines = new LinkedHashMap<>();
+        private final List<Perfume> chunk = new ArrayList<>();
+        private final CatalogImportResponse report = new CatalogImportResponse();
+
+        void add(long line, PerfumeImportRow row) {
+            report.setTotalRows(report.getTotalRows() + 1);
+            Perfume perfume;
+            try {
+                perfume = toPerfume(row);
+            } catch (InvalidInputException e) {
+                addError(line, e.getMessage());
+                return;
+            }
+
+            // The upsert cannot touch the same name twice in one statement
+            if (chunkLines.containsKey(key(perfume.getName()))) {
+                flush();
+            }
+            chunkLines.put(key(perfume.getName()), line);
+            chunk.add(perfume);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void fail(long line, String message) {
+            report.setTotalRows(report.getTotalRows() + 1);
+            addError(line, message);
+        }
+
+        CatalogImportResponse finish() {
+            flush();
+            report.setDurationMillis(System.currentTimeMillis() - started);
+            log.info("Catalog import: {} rows, {} inserted, {} updated, {} failed in {} ms", report.getTotalRows(),
+                    report.getInserted(), report.getUpdated(), report.getFailed(), report.getDurationMillis());
+            return report;
+        }
+
+        private Perfume toPerfume(PerfumeImportRow row) {
+            if (row.getName() == null || row.getName().isBlank()) {
+                throw new InvalidInputException("Perfume name is required");
+            }
+            if (row.getPrice() == null || row.getPrice().signum() < 0) {
+                throw new InvalidInputException("Price is required and must be greater than or equal to 0");
+            }
+            if (row.getStockQuantity() == null || row.getStockQuantity() < 0) {
+                throw new InvalidInputException("Stock quantity is required and must be greater than or equal to 0");
+            }
+            int discount = row.getDiscountPercent() == null ? 0 : row.getDiscountPercent();
+            if (discount < 0 || discount > 100) {
+                throw new InvalidInputException("Discount percent must be between 0 and 100");
+            }
+            if (row.getGender() == null) {
+                throw new InvalidInputException("Gender is required");
+            }
+            if (row.getFragranceFamily() == null) {
+                throw new InvalidInputException("Fragrance family is required");
+            }
+            Brand brand = row.getBrand() == null ? null : brands.get(key(row.getBrand()));
+            if (brand == null) {
+                throw new InvalidInputException("Brand not found: " + row.getBrand());
+            }
+            Category category = row.getCategory() == null ? null : categories.get(key(row.getCategory()));
+            if (category == null) {
+                throw new InvalidInputException("Category not found: " + row.getCategory());
+            }
+
+            Perfume perfume = new Perfume();
+            perfume.setName(row.getName().trim());
+            perfume.setDescription(row.getDescription());
+            perfume.setPrice(row.getPrice());
+            perfume.setImageUrl(row.getImageUrl());
+            perfume.setStockQuantity(row.getStockQuantity());
+            perfume.setBrand(brand);
+            perfume.setCategory(category);
+            perfume.setFeatured(Boolean.TRUE.equals(row.getFeatured()));
+            perfume.setBestseller(Boolean.TRUE.equals(row.getBestseller()));
+            perfume.setDiscountPercent(discount);
+            perfume.setFragranceFamily(row.getFragranceFamily());
+            perfume.setGender(row.getGender());
+            return perfume;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Perfume> perfumes = List.copyOf(chunk);
+            List<Long> lines = List.copyOf(chunkLines.values());
+            chunk.clear();
+            chunkLines.clear();
+
+            try {
+                record(upsert(perfumes));
+            } catch (DataAccessException e) {
+                log.warn("Import chunk of {} rows rejected, retrying row by row", perfumes.size(), e);
+                for (int i = 0; i < perfumes.size(); i++) {
+                    try {
+                        record(upsert(List.of(perfumes.get(i))));
+                    } catch (DataAccessException rowError) {
+                        addError(lines.get(i), NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                    }
+                }
+            }
+        }
+
+        private Map<Long, Boolean> upsert(List<Perfume> perfumes) {
+            return transactionTemplate.execute(status -> {
+                Map<Long, Boolean> result = perfumeJdbcDao.upsert(perfumes);
+                publish(result, true, ChangeType.CREATED);
+                publish(result, false, ChangeType.UPDATED);
+                return result;
+            });
+        }
+
+        private void publish(Map<Long, Boolean> result, boolean inserted, ChangeType type) {
+            Set<Long> ids = result.entrySet().stream()
+                    .filter(entry -> entry.getValue() == inserted)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+            if (!ids.isEmpty()) {
+                eventPublisher.publishEvent(new PerfumeChangedEvent(ids, type));
+            }
+        }
+
+        private void record(Map<Long, Boolean> result) {
+            long inserted = result.values().stream().filter(Boolean::booleanValue).count();
+            report.setInserted(report.getInserted() + inserted);
+            report.setUpdated(report.getUpdated() + result.size() - inserted);
+        }
+
+        private void addError(long line, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                report.getErrors().add(new CatalogImportResponse.RowError(line, message));
+            }
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields may contain commas, doubled quotes and line breaks.
+     */
+    private static final class CsvReader {
+
+        private final BufferedReader reader;
+        private long line;
+        private long recordLine;
+
+        CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        long recordLine() {
+            return recordLine;
+        }
+
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = ++line;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
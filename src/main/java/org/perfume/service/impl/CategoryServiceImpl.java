@@ -9,6 +9,9 @@ import org.perfume.mapper.CategoryMapper;
 import org.perfume.model.dto.request.CategoryRequest;
 import org.perfume.model.dto.response.CategoryResponse;
 import org.perfume.service.CategoryService;
+import org.perfume.service.event.CategoryChangedEvent;
+import org.perfume.service.event.CategoryChangedEvent.ChangeType;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +25,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryDao categoryDao;
     private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CategoryResponse save(CategoryRequest request) {
@@ -29,8 +33,9 @@ public class CategoryServiceImpl implements CategoryService {
             throw new AlreadyExistsException("Category with name " + request.getName() + " already exists");
         }
 
-        Category category = categoryMapper.toEntity(request);
-        return categoryMapper.toDto(categoryDao.save(category));
+        Category category = categoryDao.save(categoryMapper.toEntity(request));
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId(), ChangeType.SAVED));
+        return categoryMapper.toDto(category);
     }
 
     @Override
@@ -44,7 +49,9 @@ public class CategoryServiceImpl implements CategoryService {
 
         category.setName(request.getName());
         category.setDescription(request.getDescription());
-        return categoryMapper.toDto(categoryDao.save(category));
+        Category updatedCategory = categoryDao.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, ChangeType.SAVED));
+        return categoryMapper.toDto(updatedCategory);
     }
 
     @Override
@@ -53,6 +60,7 @@ public class CategoryServiceImpl implements CategoryService {
             throw new NotFoundException("Category with id " + id + " not found");
         }
         categoryDao.deleteById(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, ChangeType.DELETED));
     }
 
 
@@ -15,6 +15,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -65,14 +67,16 @@ public class FavoriteServiceImpl implements FavoriteService {
     @Override
     @Transactional(readOnly = true)
     public List<PerfumeResponse> getMostFavoritedPerfumes() {
-        return favoriteDao.findMostFavoritedProducts().stream()
-                .map(result -> {
-                    Long perfumeId = (Long) result[0];
-                    return perfumeDao.findById(perfumeId)
-                            .map(perfumeMapper::toDto)
-                            .orElse(null);
-                })
-                .filter(response -> response != null)
+        List<Long> perfumeIds = favoriteDao.findMostFavoritedProducts().stream()
+                .map(result -> (Long) result[0])
+                .collect(Collectors.toList());
+        Map<Long, Perfume> perfumes = perfumeDao.findAllById(perfumeIds).stream()
+                .collect(Collectors.toMap(Perfume::getId, Function.identity()));
+
+        return perfumeIds.stream()
+                .map(perfumes::get)
+                .filter(perfume -> perfume != null)
+                .map(perfumeMapper::toDto)
                 .collect(Collectors.toList());
     }
 }
\ No newline at end of file
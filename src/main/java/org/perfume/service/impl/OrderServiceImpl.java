@@ -11,17 +11,31 @@ import org.perfume.model.dto.response.CheckoutResponse;
 import org.perfume.model.dto.response.OrderResponse;
 import org.perfume.model.dto.response.PageResponse;
 import org.perfume.model.enums.OrderStatus;
+import org.perfume.model.money.Money;
+import org.perfume.service.CartService;
 import org.perfume.service.OrderService;
+import org.perfume.service.event.PerfumeChangedEvent;
+import org.perfume.service.event.PerfumeChangedEvent.ChangeType;
+import org.perfume.service.pagination.CursorCodec;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,11 +43,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    private static final List<String> ORDER_HISTORY_KEYS = List.of("createdAt", "id");
+    // Statuses whose stock is still in the warehouse
+    private static final Set<OrderStatus> RESTOCKABLE = EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED);
+
     private final OrderDao orderDao;
     private final OrderItemDao orderItemDao;
     private final UserDao userDao;
     private final CartDao cartDao;
-    private final CartItemDao cartItemDao;
+    private final CartService cartService;
+    private final PerfumeJdbcDao perfumeJdbcDao;
+    private final OrderJdbcDao orderJdbcDao;
+    private final ApplicationEventPublisher eventPublisher;
     private final OrderMapper orderMapper;
 
     @Override
@@ -41,7 +62,9 @@ public class OrderServiceImpl implements OrderService {
         User user = userDao.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
-        Cart cart = cartDao.findUserId(userId)
+        // A write-behind cart store may still hold changes the database has not seen
+        cartService.flush(userId);
+        Cart cart = cartDao.findByUserIdWithItems(userId)
                 .orElseThrow(() -> new NotFoundException("Cart not found"));
 
         if (cart.getItems().isEmpty()) {
@@ -54,33 +77,42 @@ public class OrderServiceImpl implements OrderService {
         order.setDeliveryAddress(request.getDeliveryAddress());
         order.setCustomerNotes(request.getCustomerNotes());
         order.setStatus(OrderStatus.PENDING);
+        // Taken below in the same transaction, so the flag and the stock commit or roll back together
+        order.setStockReserved(true);
 
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        long totalMinor = 0;
         StringBuilder whatsappMessage = new StringBuilder("New Order:\\n");
 
         for (CartItem cartItem : cart.getItems()) {
+            long unitMinor = cartItem.getPerfume().getDiscountedPriceMinor();
+            long subtotalMinor = Math.multiplyExact(unitMinor, cartItem.getQuantity());
+
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setPerfume(cartItem.getPerfume());
             orderItem.setQuantity(cartItem.getQuantity());
-            orderItem.setUnitPrice(cartItem.getPerfume().getDiscountedPrice());
+            orderItem.setUnitPrice(Money.ofMinor(unitMinor));
             orderItem.setProductName(cartItem.getPerfume().getName());
             orderItem.setBrandName(cartItem.getPerfume().getBrand().getName());
 
             order.getItems().add(orderItem);
-            totalAmount = totalAmount.add(orderItem.getSubtotal());
+            totalMinor = Math.addExact(totalMinor, subtotalMinor);
 
             whatsappMessage.append(String.format("%s x%d - %s AZN\\n", 
                 orderItem.getProductName(), 
                 orderItem.getQuantity(),
-                orderItem.getSubtotal()));
+                Money.format(subtotalMinor)));
         }
 
+        Money totalAmount = Money.ofMinor(totalMinor);
         order.setTotalAmount(totalAmount);
         Order savedOrder = orderDao.save(order);
 
         // Clear the cart
-        cartItemDao.deleteByCartId(cart.getId());
+        cartService.clearCart(userId);
+
+        // Last write of the transaction, so the stock rows stay locked only until commit
+        reserveStock(savedOrder);
 
         whatsappMessage.append(String.format("\\nTotal: %s AZN\\n", totalAmount));
         whatsappMessage.append(String.format("Delivery Address: %s\\n", request.getDeliveryAddress()));
@@ -128,15 +160,43 @@ public class OrderServiceImpl implements OrderService {
                 orderPage.getTotalElements(),
                 orderPage.getTotalPages(),
                 orderPage.isLast(),
-                orderPage.isFirst()
+                orderPage.isFirst(),
+                null,
+                null
         );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<OrderResponse> getUserOrders(Long userId, String cursor, int size, boolean withCount) {
+        KeysetScrollPosition position = CursorCodec.decode(cursor, ORDER_HISTORY_KEYS);
+        Window<Order> window = orderDao.findByUserId(userId, position, Limit.of(size),
+                Sort.by(Sort.Direction.DESC, ORDER_HISTORY_KEYS.toArray(String[]::new)));
+        long total = withCount ? orderDao.countByUserId(userId) : -1;
+
+        return CursorCodec.toPageResponse(window.map(orderMapper::toDto), position, size, total);
+    }
+
     @Override
     public OrderResponse updateOrderStatus(Long orderId, OrderStatus status) {
         Order order = orderDao.findById(orderId)
                 .orElseThrow(() -> new NotFoundException("Order not found"));
 
+        if (status == OrderStatus.CANCELLED && order.getStatus() != OrderStatus.CANCELLED) {
+            if (order.getStatus() == OrderStatus.DELIVERED) {
+                throw new InvalidInputException("Delivered orders cannot be cancelled");
+            }
+            // Shipped goods have left the warehouse: the order keeps its stock, so reopening takes none
+            if (RESTOCKABLE.contains(order.getStatus())) {
+                restock(order);
+            }
+        } else if (status != OrderStatus.CANCELLED && order.getStatus() == OrderStatus.CANCELLED) {
+            // A reopened order holds stock again; fails like checkout when it is gone
+            if (orderJdbcDao.claimStock(order.getId())) {
+                reserveStock(order);
+            }
+            order.setStockReserved(true);
+        }
         order.setStatus(status);
         return orderMapper.toDto(orderDao.save(order));
     }
@@ -162,6 +222,7 @@ public class OrderServiceImpl implements OrderService {
             throw new InvalidInputException("Can only cancel pending orders");
         }
 
+        restock(order);
         order.setStatus(OrderStatus.CANCELLED);
         orderDao.save(order);
     }
@@ -172,4 +233,37 @@ public class OrderServiceImpl implements OrderService {
         Pageable pageable = PageRequest.of(0, limit);
         return orderDao.findTopCustomers(pageable);
     }
+
+    private void reserveStock(Order order) {
+        Map<Long, Integer> quantities = quantitiesByPerfume(order);
+        Set<Long> reserved = perfumeJdbcDao.reserveStock(quantities);
+        if (reserved.size() < quantities.size()) {
+            Set<Long> outOfStock = new TreeSet<>(quantities.keySet());
+            outOfStock.removeAll(reserved);
+            // Unchecked, so the whole checkout rolls back, including the stock already taken
+            throw new InvalidInputException("Not enough stock for products: " + outOfStock);
+        }
+        eventPublisher.publishEvent(new PerfumeChangedEvent(reserved, ChangeType.STOCK));
+    }
+
+    // Only the caller that clears the flag gives stock back, so legacy orders and repeated or
+    // concurrent cancels restock nothing
+    private void restock(Order order) {
+        boolean held = orderJdbcDao.releaseStock(order.getId());
+        // The entity is flushed later and must not write the old flag back
+        order.setStockReserved(false);
+        if (!held) {
+            return;
+        }
+        Set<Long> restocked = perfumeJdbcDao.restock(quantitiesByPerfume(order));
+        if (!restocked.isEmpty()) {
+            eventPublisher.publishEvent(new PerfumeChangedEvent(restocked, ChangeType.STOCK));
+        }
+    }
+
+    private static Map<Long, Integer> quantitiesByPerfume(Order order) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        order.getItems().forEach(item -> quantities.merge(item.getPerfume().getId(), item.getQuantity(), Integer::sum));
+        return quantities;
+    }
 }
\ No newline at end of file
@@ -1,43 +1,92 @@
 package org.perfume.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.perfume.config.CacheConfig;
 import org.perfume.domain.entity.Brand;
 import org.perfume.domain.entity.Category;
 import org.perfume.domain.entity.Perfume;
 import org.perfume.domain.repo.BrandDao;
 import org.perfume.domain.repo.CategoryDao;
 import org.perfume.domain.repo.PerfumeDao;
+import org.perfume.domain.repo.PerfumeJdbcDao;
+import org.perfume.domain.repo.PerfumeSpecifications;
 import org.perfume.exception.AlreadyExistsException;
 import org.perfume.exception.InvalidInputException;
 import org.perfume.exception.NotFoundException;
 import org.perfume.mapper.PerfumeMapper;
 import org.perfume.model.dto.request.PerfumeRequest;
 import org.perfume.model.dto.request.ProductFilterRequest;
+import org.perfume.model.dto.response.BatchUpdateResult;
+import org.perfume.model.dto.response.FacetResponse;
 import org.perfume.model.dto.response.PageResponse;
 import org.perfume.model.dto.response.PerfumeResponse;
+import org.perfume.model.dto.response.PerfumeSearchResponse;
+import org.perfume.model.dto.response.SuggestionResponse;
+import org.perfume.model.enums.BatchUpdateStatus;
 import org.perfume.model.enums.FragranceFamily;
 import org.perfume.model.enums.Gender;
 import org.perfume.service.PerfumeService;
+import org.perfume.service.cache.HomepageCollection;
+import org.perfume.service.cache.HomepageSnapshots;
+import org.perfume.service.cache.InvalidationGuard;
+import org.perfume.service.event.PerfumeChangedEvent;
+import org.perfume.service.event.PerfumeChangedEvent.ChangeType;
+import org.perfume.service.index.CatalogIndex;
+import org.perfume.service.pagination.CursorCodec;
+import org.perfume.service.pagination.SortStrategy;
+import org.perfume.service.typeahead.TypeaheadIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class PerfumeServiceImpl implements PerfumeService {
 
     private final PerfumeDao perfumeDao;
+    private final PerfumeJdbcDao perfumeJdbcDao;
     private final CategoryDao categoryDao;
     private final PerfumeMapper perfumeMapper;
     private final BrandDao brandDao;
+    private final CatalogIndex catalogIndex;
+    private final HomepageSnapshots homepageSnapshots;
+    private final InvalidationGuard invalidationGuard;
+    private final TypeaheadIndex typeaheadIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.search.full-text:true}")
+    private boolean fullTextSearch;
+
+    @Value("${catalog.facets.price-buckets:50,100,200,500}")
+    private List<BigDecimal> priceBuckets;
+
+    @Value("${catalog.similarity.top-k:12}")
+    private int similarTopK;
 
     @Override
     public PerfumeResponse save(PerfumeRequest request) {
@@ -45,8 +94,9 @@ public class PerfumeServiceImpl implements PerfumeService {
             throw new AlreadyExistsException("Perfume already exists with name: " + request.getName());
         }
 
-        Perfume perfume = perfumeMapper.toEntity(request);
-        return perfumeMapper.toDto(perfumeDao.save(perfume));
+        Perfume perfume = perfumeDao.save(perfumeMapper.toEntity(request));
+        eventPublisher.publishEvent(PerfumeChangedEvent.of(perfume.getId(), ChangeType.CREATED));
+        return perfumeMapper.toDto(perfume);
     }
 
     @Override
@@ -81,7 +131,8 @@ public class PerfumeServiceImpl implements PerfumeService {
             perfume.setCategory(category);
         }
 
-        Perfume updatedPerfume = perfumeDao.save(perfume);
+        Perfume updatedPerfume = perfumeDao.saveAndFlush(perfume);
+        eventPublisher.publishEvent(PerfumeChangedEvent.of(id, ChangeType.UPDATED));
         return perfumeMapper.toDto(updatedPerfume);
     }
 
@@ -91,14 +142,15 @@ public class PerfumeServiceImpl implements PerfumeService {
             throw new NotFoundException("Perfume not found with id: " + id);
         }
         perfumeDao.deleteById(id);
+        eventPublisher.publishEvent(PerfumeChangedEvent.of(id, ChangeType.DELETED));
     }
 
     @Override
     @Transactional(readOnly = true)
     public PerfumeResponse findById(Long id) {
-        Perfume perfume = perfumeDao.findById(id)
-                .orElseThrow(() -> new NotFoundException("Perfume not found with id: " + id));
-        return perfumeMapper.toDto(perfume);
+        // The cached DTO is shared, callers get their own copy as with the homepage snapshots
+        return invalidationGuard.get(CacheConfig.PERFUMES, id, () -> perfumeMapper.toDto(perfumeDao.findById(id)
+                .orElseThrow(() -> new NotFoundException("Perfume not found with id: " + id)))).copy();
     }
 
     @Override
@@ -120,6 +172,38 @@ public class PerfumeServiceImpl implements PerfumeService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        return typeaheadIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<PerfumeSearchResponse> searchPerfumes(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidInputException("Search query must not be empty.");
+        }
+
+        Pageable pageable = PageRequest.of(page, size);
+        if (!fullTextSearch) {
+            return toPageResponse(perfumeDao.searchByKeyword(query.trim(), pageable)
+                    .map(perfume -> new PerfumeSearchResponse(perfumeMapper.toDto(perfume), 0)));
+        }
+
+        Page<Object[]> hits = perfumeDao.searchRanked(query.trim(), pageable);
+        Map<Long, PerfumeResponse> perfumes = findAllInOrder(hits.getContent().stream()
+                .map(hit -> ((Number) hit[0]).longValue())
+                .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(PerfumeResponse::getId, Function.identity()));
+
+        return toPageResponse(hits.map(hit -> new PerfumeSearchResponse(
+                perfumes.get(((Number) hit[0]).longValue()),
+                ((Number) hit[1]).doubleValue()
+        )));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<PerfumeResponse> getPerfumesByBrand(Long brandId) {
@@ -127,9 +211,7 @@ public class PerfumeServiceImpl implements PerfumeService {
             throw new NotFoundException("Brand not found with id: " + brandId);
         }
 
-        return perfumeDao.findByBrandId(brandId).stream()
-                .map(perfumeMapper::toDto)
-                .collect(Collectors.toList());
+        return perfumeDao.findSummariesByBrandId(brandId);
     }
 
     @Override
@@ -138,9 +220,7 @@ public class PerfumeServiceImpl implements PerfumeService {
         if (!perfumeDao.existsById(categoryId)) {
             throw new NotFoundException("Category not found with id: " + categoryId);
         }
-        return perfumeDao.findByCategoryId(categoryId).stream()
-                .map(perfumeMapper::toDto)
-                .collect(Collectors.toList());
+        return perfumeDao.findSummariesByCategoryId(categoryId);
     }
 
     @Override
@@ -156,58 +236,44 @@ public class PerfumeServiceImpl implements PerfumeService {
             throw new InvalidInputException("Min price cannot be greater than max price.");
         }
 
-        return perfumeDao.findByPriceBetween(minPrice, maxPrice).stream()
-                .map(perfumeMapper::toDto)
-                .collect(Collectors.toList());
+        return perfumeDao.findSummariesByPriceBetween(minPrice, maxPrice);
     }
 
 
     @Override
     @Transactional(readOnly = true)
     public List<PerfumeResponse> getPerfumesByFragranceFamily(FragranceFamily family) {
-        return perfumeDao.findByFragranceFamily(family).stream()
-                .map(perfumeMapper::toDto)
-                .collect(Collectors.toList());
+        return perfumeDao.findSummariesByFragranceFamily(family);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PerfumeResponse> getPerfumesByGender(Gender gender) {
-        return perfumeDao.findByGender(gender).stream()
-                .map(perfumeMapper::toDto)
-                .collect(Collectors.toList());
+        return perfumeDao.findSummariesByGender(gender);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<PerfumeResponse> getFeaturedPerfumes() {
-        return perfumeDao.findByFeaturedTrue().stream()
-                .map(perfumeMapper::toDto)
-                .collect(Collectors.toList());
+        return homepageSnapshots.get(HomepageCollection.FEATURED).getPerfumes();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<PerfumeResponse> getBestsellerPerfumes() {
-        return perfumeDao.findByBestsellerTrue().stream()
-                .map(perfumeMapper::toDto)
-                .collect(Collectors.toList());
+        return homepageSnapshots.get(HomepageCollection.BESTSELLER).getPerfumes();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<PerfumeResponse> getInStockPerfumes() {
-        return perfumeDao.findInStockQuantity().stream()
-                .map(perfumeMapper::toDto)
-                .collect(Collectors.toList());
+        return homepageSnapshots.get(HomepageCollection.IN_STOCK).getPerfumes();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<PerfumeResponse> getDiscountedPerfumes() {
-        return perfumeDao.findDiscountedPerfumes().stream()
-                .map(perfumeMapper::toDto)
-                .collect(Collectors.toList());
+        return homepageSnapshots.get(HomepageCollection.DISCOUNTED).getPerfumes();
     }
 
     @Override
@@ -228,29 +294,47 @@ public class PerfumeServiceImpl implements PerfumeService {
                 perfumePage.getTotalElements(),
                 perfumePage.getTotalPages(),
                 perfumePage.isLast(),
-                perfumePage.isFirst()
+                perfumePage.isFirst(),
+                null,
+                null
         );
     }
 
     @Override
     @Transactional(readOnly = true)
+    public PageResponse<PerfumeResponse> getLatestPerfumes(String cursor, int size, boolean withCount) {
+        return scroll(PerfumeSpecifications.all(), SortStrategy.NEWEST, SortStrategy.NEWEST.sort("desc"), cursor, size, withCount);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<PerfumeResponse> getPopularPerfumes() {
-        return perfumeDao.findPopularPerfumes()
-                .stream()
-                .map(perfumeMapper::toDto)
-                .collect(Collectors.toList());
+        return homepageSnapshots.get(HomepageCollection.POPULAR).getPerfumes();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PerfumeResponse> getSimilarPerfumes(Long perfumeId) {
+        return PerfumeResponse.copyAll(
+                invalidationGuard.get(CacheConfig.SIMILAR_PERFUMES, perfumeId, () -> loadSimilarPerfumes(perfumeId)));
+    }
+
+    private List<PerfumeResponse> loadSimilarPerfumes(Long perfumeId) {
+        List<PerfumeResponse> similar = perfumeDao.findSimilarSummaries(perfumeId);
+        if (!similar.isEmpty()) {
+            return similar;
+        }
+
+        // Neighbours not computed yet (new perfume or first rebuild still running). Same brand or
+        // category stands in, capped at the neighbour count so a large category is not loaded whole.
         Perfume perfume = perfumeDao.findById(perfumeId)
                 .orElseThrow(() -> new NotFoundException("Perfume not found with id: " + perfumeId));
 
         return perfumeDao.findSimilarPerfumes(
                         perfume.getBrand().getId(),
                         perfume.getCategory().getId(),
-                        perfumeId
+                        perfumeId,
+                        PageRequest.of(0, similarTopK, Sort.by("discountedPrice", "id"))
                 ).stream()
                 .map(perfumeMapper::toDto)
                 .collect(Collectors.toList());
@@ -259,17 +343,15 @@ public class PerfumeServiceImpl implements PerfumeService {
     @Override
     @Transactional(readOnly = true)
     public List<PerfumeResponse> getPerfumesWithFilters(ProductFilterRequest filterRequest) {
-        Sort sort = Sort.by(
-                filterRequest.getSortDirection().equalsIgnoreCase("desc")
-                        ? Sort.Direction.DESC
-                        : Sort.Direction.ASC,
-                filterRequest.getSortBy()
-        );
+        Optional<List<Long>> indexedIds = catalogIndex.findIds(filterRequest);
+        if (indexedIds.isPresent()) {
+            return findAllInOrder(indexedIds.get());
+        }
 
         Pageable pageable = PageRequest.of(
                 filterRequest.getPage(),
                 filterRequest.getSize(),
-                sort
+                sortFor(filterRequest)
         );
 
         return perfumeDao.findWithFilters(
@@ -288,6 +370,20 @@ public class PerfumeServiceImpl implements PerfumeService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<PerfumeResponse> scrollPerfumesWithFilters(ProductFilterRequest filterRequest) {
+        return scroll(PerfumeSpecifications.matching(filterRequest), SortStrategy.of(filterRequest), sortFor(filterRequest),
+                filterRequest.getCursor(), filterRequest.getSize(), filterRequest.isWithCount());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FacetResponse getFacets(ProductFilterRequest filterRequest) {
+        return catalogIndex.facets(filterRequest, priceBuckets)
+                .orElseGet(() -> countFacets(filterRequest));
+    }
+
     @Override
     public PerfumeResponse updateStock(Long id, Integer newStock) {
         Perfume perfume = perfumeDao.findById(id)
@@ -295,6 +391,7 @@ public class PerfumeServiceImpl implements PerfumeService {
 
         perfume.setStockQuantity(newStock);
         Perfume updatedPerfume = perfumeDao.save(perfume);
+        eventPublisher.publishEvent(PerfumeChangedEvent.of(id, ChangeType.STOCK));
         return perfumeMapper.toDto(updatedPerfume);
     }
 
@@ -304,10 +401,22 @@ public class PerfumeServiceImpl implements PerfumeService {
                 .orElseThrow(() -> new NotFoundException("Perfume not found with id: " + id));
 
         perfume.setDiscountPercent(discountPercent);
-        Perfume updatedPerfume = perfumeDao.save(perfume);
+        Perfume updatedPerfume = perfumeDao.saveAndFlush(perfume);
+        eventPublisher.publishEvent(PerfumeChangedEvent.of(id, ChangeType.DISCOUNT));
         return perfumeMapper.toDto(updatedPerfume);
     }
 
+    @Override
+    public List<BatchUpdateResult> updateStock(Map<Long, Integer> stockById) {
+        return updateBatch(stockById, stock -> stock >= 0, perfumeJdbcDao::updateStock, ChangeType.STOCK);
+    }
+
+    @Override
+    public List<BatchUpdateResult> updateDiscount(Map<Long, Integer> discountById) {
+        return updateBatch(discountById, discount -> discount >= 0 && discount <= 100,
+                perfumeJdbcDao::updateDiscount, ChangeType.DISCOUNT);
+    }
+
     @Override
     public PerfumeResponse toggleFeatured(Long id) {
         Perfume perfume = perfumeDao.findById(id)
@@ -315,6 +424,7 @@ public class PerfumeServiceImpl implements PerfumeService {
 
         perfume.setFeatured(!perfume.isFeatured());
         Perfume updatedPerfume = perfumeDao.save(perfume);
+        eventPublisher.publishEvent(PerfumeChangedEvent.of(id, ChangeType.FEATURED));
         return perfumeMapper.toDto(updatedPerfume);
     }
 
@@ -325,6 +435,115 @@ public class PerfumeServiceImpl implements PerfumeService {
 
         perfume.setBestseller(!perfume.isBestseller());
         Perfume updatedPerfume = perfumeDao.save(perfume);
+        eventPublisher.publishEvent(PerfumeChangedEvent.of(id, ChangeType.BESTSELLER));
         return perfumeMapper.toDto(updatedPerfume);
     }
+
+    // One set-based UPDATE for the whole batch and one change event, whatever the batch size
+    private List<BatchUpdateResult> updateBatch(Map<Long, Integer> values, IntPredicate valid,
+                                                Function<Map<Long, Integer>, Set<Long>> update, ChangeType type) {
+        Map<Long, Integer> accepted = new HashMap<>();
+        values.forEach((id, value) -> {
+            if (value != null && valid.test(value)) {
+                accepted.put(id, value);
+            }
+        });
+
+        Set<Long> changed = accepted.isEmpty() ? Set.of() : update.apply(accepted);
+        List<Long> untouched = accepted.keySet().stream()
+                .filter(id -> !changed.contains(id))
+                .toList();
+        Set<Long> existing = untouched.isEmpty() ? Set.of() : perfumeJdbcDao.findExistingIds(untouched);
+
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new PerfumeChangedEvent(changed, type));
+        }
+
+        List<BatchUpdateResult> results = new ArrayList<>(values.size());
+        values.forEach((id, value) -> {
+            BatchUpdateStatus status;
+            if (!accepted.containsKey(id)) {
+                status = BatchUpdateStatus.INVALID;
+            } else if (changed.contains(id)) {
+                status = BatchUpdateStatus.UPDATED;
+            } else if (existing.contains(id)) {
+                status = BatchUpdateStatus.UNCHANGED;
+            } else {
+                status = BatchUpdateStatus.NOT_FOUND;
+            }
+            results.add(new BatchUpdateResult(id, value, status));
+        });
+        return results;
+    }
+
+    private FacetResponse countFacets(ProductFilterRequest filter) {
+        List<Object[]> rows = perfumeJdbcDao.countFacets(filter, priceBuckets);
+
+        Map<Long, Long> brands = new HashMap<>();
+        Map<Long, Long> categories = new HashMap<>();
+        Map<Gender, Long> genders = new EnumMap<>(Gender.class);
+        Map<FragranceFamily, Long> families = new EnumMap<>(FragranceFamily.class);
+        long[] bucketCounts = new long[priceBuckets.size() + 1];
+
+        for (Object[] row : rows) {
+            long count = ((Number) row[5]).longValue();
+            if (row[0] != null) {
+                brands.put(((Number) row[0]).longValue(), count);
+            } else if (row[1] != null) {
+                categories.put(((Number) row[1]).longValue(), count);
+            } else if (row[2] != null) {
+                genders.put(Gender.valueOf((String) row[2]), count);
+            } else if (row[3] != null) {
+                families.put(FragranceFamily.valueOf((String) row[3]), count);
+            } else if (row[4] != null) {
+                bucketCounts[((Number) row[4]).intValue()] = count;
+            }
+        }
+
+        return new FacetResponse(Arrays.stream(bucketCounts).sum(), brands, categories, genders, families,
+                FacetResponse.PriceBucket.of(priceBuckets, bucketCounts));
+    }
+
+    private List<PerfumeResponse> findAllInOrder(List<Long> ids) {
+        Map<Long, Perfume> perfumes = perfumeDao.findAllById(ids).stream()
+                .collect(Collectors.toMap(Perfume::getId, Function.identity()));
+
+        return ids.stream()
+                .map(perfumes::get)
+                .filter(perfume -> perfume != null)
+                .map(perfumeMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private Sort sortFor(ProductFilterRequest filterRequest) {
+        SortStrategy strategy = SortStrategy.of(filterRequest);
+        if (log.isDebugEnabled() && strategy.expectedCost(filterRequest) == SortStrategy.SortCost.TOP_N_SORT) {
+            log.debug("Sort {} cannot walk {} for filter {}, expecting a top-N sort", strategy, strategy.getIndex(), filterRequest);
+        }
+        return strategy.sort(filterRequest.getSortDirection());
+    }
+
+    private PageResponse<PerfumeResponse> scroll(Specification<Perfume> spec, SortStrategy strategy, Sort sort,
+                                                 String cursor, int size, boolean withCount) {
+        KeysetScrollPosition position = CursorCodec.decode(cursor, strategy);
+        Window<Perfume> window = perfumeDao.findBy(spec.and(PerfumeSpecifications.fetchBrandAndCategory()),
+                query -> query.sortBy(sort).limit(size).scroll(position));
+        long total = withCount ? perfumeDao.count(spec) : -1;
+
+        return CursorCodec.toPageResponse(window.map(perfumeMapper::toDto), position, size, total);
+    }
+
+    private <T> PageResponse<T> toPageResponse(Page<T> page) {
+        return new PageResponse<>(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isLast(),
+                page.isFirst(),
+                null,
+                null
+        );
+    }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@ import org.perfume.model.dto.response.UserResponse;
 import org.perfume.model.enums.UserRole;
 import org.perfume.security.JwtUtils;
 import org.perfume.service.UserService;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -23,7 +24,10 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -38,14 +42,29 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final PlatformTransactionManager transactionManager;
+    // Built from this service as its UserDetailsService, so it can only be resolved on first use
+    @Lazy
     private final AuthenticationManager authenticationManager;
 
+    /**
+     * Runs for every authenticated request, so it reads from a replica. A user registered moments ago
+     * may not have reached it yet; a miss is checked once more on the primary before it fails.
+     */
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         return userDao.findByEmail(email)
+                .or(() -> findOnPrimary(email))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 
+    private Optional<User> findOnPrimary(String email) {
+        TransactionTemplate primary = new TransactionTemplate(transactionManager);
+        primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return primary.execute(status -> userDao.findByEmail(email));
+    }
+
     @Override
     public AuthResponse register(RegisterRequest request) {
         if (userDao.existsByEmail(request.getEmail())) {
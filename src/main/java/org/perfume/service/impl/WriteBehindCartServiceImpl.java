@@ -0,0 +1,470 @@
+package org.perfume.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.perfume.domain.entity.Cart;
+import org.perfume.domain.repo.CartDao;
+import org.perfume.domain.repo.CartItemDao;
+import org.perfume.domain.repo.CartJdbcDao;
+import org.perfume.domain.repo.PerfumeDao;
+import org.perfume.domain.repo.UserDao;
+import org.perfume.exception.InvalidInputException;
+import org.perfume.exception.NotFoundException;
+import org.perfume.model.dto.request.CartItemRequest;
+import org.perfume.model.dto.response.CartItemResponse;
+import org.perfume.model.dto.response.CartResponse;
+import org.perfume.model.dto.response.PerfumeResponse;
+import org.perfume.model.money.Money;
+import org.perfume.service.CartService;
+import org.perfume.service.PerfumeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Cart backend that keeps carts in memory and writes them to the database behind the request.
+ * Every change marks the cart dirty; dirty carts are written in coalesced batches once per
+ * durability window, so a cart changed many times in a window costs one write. Changes inside
+ * the last window can be lost on a crash. Checkout calls {@link #flush(Long)} first, so the
+ * order is built from the stored cart.
+ * <p>
+ * Single instance only: the in-memory cart is the source of truth for its JVM, and each flush
+ * overwrites the stored cart with it. With several instances, a cart changed on one node is
+ * overwritten by another node's older copy; run the database store there.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "catalog.cart.store", havingValue = "memory")
+public class WriteBehindCartServiceImpl implements CartService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final CartDao cartDao;
+    private final CartItemDao cartItemDao;
+    private final CartJdbcDao cartJdbcDao;
+    private final UserDao userDao;
+    private final PerfumeDao perfumeDao;
+    private final PerfumeService perfumeService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long idleEvictionMillis;
+
+    private final Map<Long, CartState> states = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Background and checkout writes of one cart must not interleave, or an older snapshot could land
+    // last. Checkout holds its cart's stripe until its transaction completes; the background flush only
+    // tries the stripes and skips carts it cannot get, so it never waits on a checkout's row locks
+    // while holding a stripe that checkout needs.
+    private final ReentrantLock[] userLocks = new ReentrantLock[LOCK_STRIPES];
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cart-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WriteBehindCartServiceImpl(CartDao cartDao,
+                                      CartItemDao cartItemDao,
+                                      CartJdbcDao cartJdbcDao,
+                                      UserDao userDao,
+                                      PerfumeDao perfumeDao,
+                                      PerfumeService perfumeService,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${catalog.cart.write-behind.window:2s}") Duration window,
+                                      @Value("${catalog.cart.write-behind.batch-size:500}") int batchSize,
+                                      @Value("${catalog.cart.write-behind.idle-eviction:30m}") Duration idleEviction) {
+        this.cartDao = cartDao;
+        this.cartItemDao = cartItemDao;
+        this.cartJdbcDao = cartJdbcDao;
+        this.userDao = userDao;
+        this.perfumeDao = perfumeDao;
+        this.perfumeService = perfumeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.idleEvictionMillis = idleEviction.toMillis();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            userLocks[i] = new ReentrantLock();
+        }
+        scheduler.scheduleWithFixedDelay(this::flushDirty, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CartResponse getCart(Long userId) {
+        CartState state = stateFor(userId);
+        Map<Long, Integer> items;
+        synchronized (state) {
+            state.touch();
+            items = new LinkedHashMap<>(state.items);
+        }
+        return toResponse(state.cartId, items);
+    }
+
+    @Override
+    public CartResponse addToCart(Long userId, CartItemRequest request) {
+        PerfumeResponse perfume = perfumeService.findById(request.getProductId());
+        if (perfume.getStockQuantity() < request.getQuantity()) {
+            throw new InvalidInputException("Not enough stock");
+        }
+        return mutate(userId, items -> items.merge(request.getProductId(), request.getQuantity(), Integer::sum));
+    }
+
+    @Override
+    public CartResponse addToCart(Long userId, List<CartItemRequest> requests) {
+        Map<Long, Integer> toAdd = CartBatch.quantities(requests);
+        Map<Long, Integer> stock = new HashMap<>();
+        for (Object[] row : perfumeDao.findStockByIds(toAdd.keySet())) {
+            stock.put((Long) row[0], (Integer) row[1]);
+        }
+        return mutate(userId, items -> {
+            CartBatch.validate(toAdd, stock, items);
+            toAdd.forEach((perfumeId, quantity) -> items.merge(perfumeId, quantity, Integer::sum));
+            return null;
+        });
+    }
+
+    @Override
+    public CartResponse updateCartItem(Long userId, Long productId, Integer quantity) {
+        if (perfumeService.findById(productId).getStockQuantity() < quantity) {
+            throw new InvalidInputException("Not enough stock");
+        }
+        return mutate(userId, items -> {
+            if (!items.containsKey(productId)) {
+                throw new NotFoundException("Cart item not found");
+            }
+            return items.put(productId, quantity);
+        });
+    }
+
+    @Override
+    public void removeFromCart(Long userId, Long productId) {
+        mutate(userId, items -> items.remove(productId));
+    }
+
+    /**
+     * Empties the stored cart, and takes the items it held out of the one in memory once that
+     * commits; checkout relies on this. Items added or changed in the meantime stay and are written
+     * again. Inside a transaction that rolls back, the cart keeps its items.
+     */
+    @Override
+    public void clearCart(Long userId) {
+        Runnable unlock = lockUntilCompletion(userId);
+        try {
+            Map<Long, Integer> cleared = Map.of();
+            CartState state = states.get(userId);
+            if (state != null) {
+                synchronized (state) {
+                    cleared = new LinkedHashMap<>(state.items);
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> cartDao.findByUserId(userId)
+                    .ifPresent(cart -> cartItemDao.deleteAllByCartId(cart.getId())));
+            Map<Long, Integer> removed = cleared;
+            onCommit(() -> removeCleared(userId, removed));
+        } finally {
+            unlock.run();
+        }
+    }
+
+    @Override
+    public void flush(Long userId) {
+        // Locked even when clean: a background write may have taken the cart off the dirty set and
+        // not committed yet
+        Runnable unlock = lockUntilCompletion(userId);
+        try {
+            if (!dirty.contains(userId)) {
+                return;
+            }
+            Map<Long, Map<Long, Integer>> snapshot = snapshot(List.of(userId));
+            if (!snapshot.isEmpty()) {
+                // Joins the caller's transaction, so checkout reads what was just written
+                transactionTemplate.executeWithoutResult(status -> cartJdbcDao.replaceItems(snapshot));
+                // If that transaction rolls back, the write goes with it
+                onRollback(() -> dirty.add(userId));
+            }
+        } catch (RuntimeException e) {
+            dirty.add(userId);
+            throw e;
+        } finally {
+            unlock.run();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flushDirty();
+    }
+
+    private CartResponse mutate(Long userId, Function<Map<Long, Integer>, ?> change) {
+        while (true) {
+            CartState state = stateFor(userId);
+            Map<Long, Integer> items;
+            synchronized (state) {
+                // Evicted between lookup and lock: take the fresh state instead
+                if (state.evicted) {
+                    continue;
+                }
+                change.apply(state.items);
+                state.touch();
+                dirty.add(userId);
+                items = new LinkedHashMap<>(state.items);
+            }
+            return toResponse(state.cartId, items);
+        }
+    }
+
+    private CartState stateFor(Long userId) {
+        CartState state = states.get(userId);
+        if (state != null) {
+            return state;
+        }
+        CartState loaded = load(userId);
+        CartState existing = states.putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private CartState load(Long userId) {
+        Long cartId = cartDao.findByUserId(userId).map(Cart::getId).orElse(null);
+        if (cartId == null && !userDao.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
+        CartState state = new CartState(cartId);
+        if (cartId != null) {
+            cartItemDao.findByCartId(cartId)
+                    .forEach(item -> state.items.put(item.getPerfume().getId(), item.getQuantity()));
+        }
+        return state;
+    }
+
+    private void flushDirty() {
+        try {
+            List<Long> batch = new ArrayList<>(batchSize);
+            for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+                batch.add(it.next());
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            evictIdle();
+        } catch (RuntimeException e) {
+            log.error("Cart write-behind flush failed", e);
+        }
+    }
+
+    // Carts whose stripe a checkout holds stay dirty for the next window
+    private void write(List<Long> userIds) {
+        List<ReentrantLock> held = new ArrayList<>();
+        try {
+            List<Long> writable = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                ReentrantLock lock = lockFor(userId);
+                if (lock.tryLock()) {
+                    held.add(lock);
+                    writable.add(userId);
+                }
+            }
+            write(snapshot(writable));
+        } finally {
+            held.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private void write(Map<Long, Map<Long, Integer>> snapshot) {
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> cartJdbcDao.replaceItems(snapshot));
+        } catch (RuntimeException batchFailure) {
+            // One bad cart (e.g. a deleted user) must not hold back the rest of the batch
+            snapshot.forEach((userId, items) -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> cartJdbcDao.replaceItems(Map.of(userId, items)));
+                } catch (DataIntegrityViolationException e) {
+                    // The user is gone, so retrying cannot succeed
+                    log.warn("Dropping unsaved cart of user {}: {}", userId, e.getMessage());
+                    discard(userId);
+                } catch (RuntimeException e) {
+                    log.warn("Could not save cart of user {}, retrying next window: {}", userId, e.getMessage());
+                    dirty.add(userId);
+                }
+            });
+        }
+    }
+
+    private Map<Long, Map<Long, Integer>> snapshot(List<Long> userIds) {
+        Map<Long, Map<Long, Integer>> snapshot = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            dirty.remove(userId);
+            CartState state = states.get(userId);
+            if (state != null) {
+                synchronized (state) {
+                    snapshot.put(userId, new LinkedHashMap<>(state.items));
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private ReentrantLock lockFor(Long userId) {
+        return userLocks[Math.floorMod(userId.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * Takes the cart's stripe until the caller's transaction completes, so the rows it writes stay
+     * unseen by the background flush until they commit. Without a transaction the returned action
+     * releases it; inside one it does nothing.
+     */
+    private Runnable lockUntilCompletion(Long userId) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return lock::unlock;
+        }
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        return () -> {
+        };
+    }
+
+    // Runs now when there is no transaction to wait for
+    private static void onCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    // Only entries still as they were when cleared; anything changed since is written again
+    private void removeCleared(Long userId, Map<Long, Integer> cleared) {
+        CartState state = states.get(userId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            cleared.forEach(state.items::remove);
+            if (!state.items.isEmpty()) {
+                dirty.add(userId);
+            }
+        }
+    }
+
+    private void discard(Long userId) {
+        CartState state = states.remove(userId);
+        if (state != null) {
+            synchronized (state) {
+                state.evicted = true;
+            }
+        }
+        dirty.remove(userId);
+    }
+
+    // Skips carts under a checkout: one that rolls back marks its cart dirty again and needs the state
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMillis;
+        states.forEach((userId, state) -> {
+            ReentrantLock lock = lockFor(userId);
+            if (!lock.tryLock()) {
+                return;
+            }
+            try {
+                synchronized (state) {
+                    if (state.lastAccess < cutoff && !dirty.contains(userId)) {
+                        state.evicted = true;
+                        states.remove(userId, state);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private CartResponse toResponse(Long cartId, Map<Long, Integer> items) {
+        List<CartItemResponse> responses = new ArrayList<>(items.size());
+        long totalMinor = 0;
+        int totalItems = 0;
+        for (Map.Entry<Long, Integer> item : items.entrySet()) {
+            PerfumeResponse perfume;
+            try {
+                perfume = perfumeService.findById(item.getKey());
+            } catch (NotFoundException e) {
+                continue;
+            }
+            Money subtotal = Money.ofMinor(Math.multiplyExact(Money.minorOf(perfume.getDiscountedPrice()), item.getValue()));
+            // Items are not rows yet, so they have no id of their own
+            responses.add(new CartItemResponse(null, perfume, item.getValue(), subtotal));
+            totalMinor = Math.addExact(totalMinor, subtotal.getMinor());
+            totalItems += item.getValue();
+        }
+        return new CartResponse(cartId, responses, Money.ofMinor(totalMinor), totalItems);
+    }
+
+    private static final class CartState {
+
+        private final Long cartId;
+        private final Map<Long, Integer> items = new LinkedHashMap<>();
+        private long lastAccess = System.currentTimeMillis();
+        private boolean evicted;
+
+        private CartState(Long cartId) {
+            this.cartId = cartId;
+        }
+
+        private void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package org.perfume.service.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.perfume.domain.repo.PerfumeDao;
+import org.perfume.model.dto.request.ProductFilterRequest;
+import org.perfume.model.dto.response.FacetResponse;
+import org.perfume.model.enums.FragranceFamily;
+import org.perfume.model.enums.Gender;
+import org.perfume.service.event.PerfumeChangedEvent;
+import org.perfume.service.pagination.SortStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process bitmap index over the filterable perfume columns. Filters are answered as
+ * bitmap intersections and only the requested page of ids is returned for hydration.
+ * Prices are the discounted price the customer pays. Free-text search and sorts other than
+ * id/discountedPrice are left to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogIndex {
+
+    private static final Set<SortStrategy> SUPPORTED_SORTS = EnumSet.of(SortStrategy.ID, SortStrategy.DISCOUNTED_PRICE);
+
+    private final PerfumeDao perfumeDao;
+
+    @Value("${catalog.index.enabled:false}")
+    private boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by itself together with the rebuilding flag, see finishRebuild
+    private final Set<Long> pendingIds = new HashSet<>();
+    private volatile Columns columns;
+    private volatile boolean rebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (pendingIds) {
+            rebuilding = true;
+        }
+        try {
+            Columns fresh = new Columns();
+            for (Object[] row : perfumeDao.findIndexRows()) {
+                fresh.put(row);
+            }
+
+            lock.writeLock().lock();
+            try {
+                columns = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Catalog index built with {} perfumes", fresh.size());
+        } finally {
+            Set<Long> replay = finishRebuild();
+            if (!replay.isEmpty()) {
+                refresh(replay, false);
+            }
+        }
+    }
+
+    /**
+     * Clears the rebuilding flag and takes the ids that changed meanwhile in one step, so a
+     * listener either queued its ids before the drain or sees the flag cleared and patches itself.
+     * Without any columns yet the ids stay queued for the next rebuild.
+     */
+    private Set<Long> finishRebuild() {
+        synchronized (pendingIds) {
+            rebuilding = false;
+            if (columns == null) {
+                return Set.of();
+            }
+            Set<Long> replay = new HashSet<>(pendingIds);
+            pendingIds.clear();
+            return replay;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPerfumeChanged(PerfumeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (pendingIds) {
+            if (rebuilding || columns == null) {
+                pendingIds.addAll(event.getPerfumeIds());
+                return;
+            }
+        }
+        refresh(event.getPerfumeIds(), event.getType() == PerfumeChangedEvent.ChangeType.DELETED);
+    }
+
+    /**
+     * Returns the ids of the requested page in sort order, or empty when the filter has to be
+     * answered by the database instead.
+     */
+    public Optional<List<Long>> findIds(ProductFilterRequest filter) {
+        Columns current = columns;
+        if (!enabled || current == null || !supports(filter)) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = current.match(filter);
+            boolean descending = "desc".equalsIgnoreCase(filter.getSortDirection());
+            int offset = filter.getPage() * filter.getSize();
+
+            return Optional.of(SortStrategy.of(filter) == SortStrategy.DISCOUNTED_PRICE
+                    ? current.pageByPrice(matches, offset, filter.getSize(), descending)
+                    : current.pageBySlot(matches, offset, filter.getSize(), descending));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts every facet for the filter in one pass over the bitmaps, or empty when the filter has
+     * to be answered by the database instead.
+     */
+    public Optional<FacetResponse> facets(ProductFilterRequest filter, List<BigDecimal> priceBounds) {
+        Columns current = columns;
+        if (!enabled || current == null || hasSearch(filter)) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            return Optional.of(current.facets(current.match(filter), priceBounds));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean supports(ProductFilterRequest filter) {
+        return !hasSearch(filter) && SUPPORTED_SORTS.contains(SortStrategy.of(filter));
+    }
+
+    private static boolean hasSearch(ProductFilterRequest filter) {
+        return filter.getSearch() != null && !filter.getSearch().isBlank();
+    }
+
+    private void refresh(Collection<Long> ids, boolean deleted) {
+        List<Object[]> rows = deleted ? List.of() : perfumeDao.findIndexRowsByIds(ids);
+
+        lock.writeLock().lock();
+        try {
+            Set<Long> missing = new HashSet<>(ids);
+            for (Object[] row : rows) {
+                columns.put(row);
+                missing.remove((Long) row[0]);
+            }
+            missing.forEach(columns::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long toCents(BigDecimal amount, RoundingMode mode) {
+        return amount.movePointRight(2).setScale(0, mode).longValue();
+    }
+
+    /**
+     * Column store keyed by slot. New perfumes are appended, so slot order normally doubles as id
+     * order; removed slots are only cleared from {@code live} and are compacted by the next rebuild.
+     */
+    private static final class Columns {
+
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private final Map<Long, BitSet> byBrand = new HashMap<>();
+        private final Map<Long, BitSet> byCategory = new HashMap<>();
+        private final Map<Gender, BitSet> byGender = new EnumMap<>(Gender.class);
+        private final Map<FragranceFamily, BitSet> byFamily = new EnumMap<>(FragranceFamily.class);
+        private final BitSet featured = new BitSet();
+        private final BitSet bestseller = new BitSet();
+        private long[] ids = new long[1024];
+        private long[] prices = new long[1024];
+        private int nextSlot;
+        private boolean slotsInIdOrder = true;
+
+        private int[] slotsByPrice = new int[0];
+        private boolean priceOrderDirty = true;
+
+        int size() {
+            return live.cardinality();
+        }
+
+        void put(Object[] row) {
+            Long id = (Long) row[0];
+            Integer existing = slotById.get(id);
+            int slot;
+            if (existing != null) {
+                // Only a slot that already holds a row has bits to reset; fresh appends skip the walk
+                slot = existing;
+                clear(slot);
+            } else {
+                slot = append(id);
+            }
+
+            prices[slot] = toCents((BigDecimal) row[7], RoundingMode.HALF_UP);
+            live.set(slot);
+            byBrand.computeIfAbsent((Long) row[1], k -> new BitSet()).set(slot);
+            byCategory.computeIfAbsent((Long) row[2], k -> new BitSet()).set(slot);
+            byGender.computeIfAbsent((Gender) row[3], k -> new BitSet()).set(slot);
+            byFamily.computeIfAbsent((FragranceFamily) row[4], k -> new BitSet()).set(slot);
+            featured.set(slot, (Boolean) row[5]);
+            bestseller.set(slot, (Boolean) row[6]);
+            priceOrderDirty = true;
+        }
+
+        void remove(Long id) {
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                clear(slot);
+                priceOrderDirty = true;
+            }
+        }
+
+        private int append(Long id) {
+            int slot = nextSlot++;
+            if (slot == ids.length) {
+                ids = Arrays.copyOf(ids, slot * 2);
+                prices = Arrays.copyOf(prices, slot * 2);
+            }
+            if (slot > 0 && id < ids[slot - 1]) {
+                slotsInIdOrder = false;
+            }
+
+            ids[slot] = id;
+            slotById.put(id, slot);
+            return slot;
+        }
+
+        private void clear(int slot) {
+            live.clear(slot);
+            byBrand.values().forEach(bits -> bits.clear(slot));
+            byCategory.values().forEach(bits -> bits.clear(slot));
+            byGender.values().forEach(bits -> bits.clear(slot));
+            byFamily.values().forEach(bits -> bits.clear(slot));
+            featured.clear(slot);
+            bestseller.clear(slot);
+        }
+
+        BitSet match(ProductFilterRequest filter) {
+            BitSet result = (BitSet) live.clone();
+
+            if (filter.getBrandId() != null) {
+                result.and(byBrand.getOrDefault(filter.getBrandId(), new BitSet()));
+            }
+            if (filter.getCategoryId() != null) {
+                result.and(byCategory.getOrDefault(filter.getCategoryId(), new BitSet()));
+            }
+            if (filter.getGender() != null) {
+                result.and(byGender.getOrDefault(filter.getGender(), new BitSet()));
+            }
+            if (filter.getFragranceFamily() != null) {
+                result.and(byFamily.getOrDefault(filter.getFragranceFamily(), new BitSet()));
+            }
+            if (filter.getFeatured() != null) {
+                applyFlag(result, featured, filter.getFeatured());
+            }
+            if (filter.getBestseller() != null) {
+                applyFlag(result, bestseller, filter.getBestseller());
+            }
+            if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+                result.and(priceRange(filter.getMinPrice(), filter.getMaxPrice()));
+            }
+            return result;
+        }
+
+        List<Long> pageBySlot(BitSet matches, int offset, int limit, boolean descending) {
+            if (!slotsInIdOrder) {
+                return matches.stream()
+                        .mapToObj(slot -> ids[slot])
+                        .sorted(descending ? Comparator.reverseOrder() : Comparator.naturalOrder())
+                        .skip(offset)
+                        .limit(limit)
+                        .toList();
+            }
+
+            List<Long> page = new ArrayList<>(limit);
+            int skipped = 0;
+            int slot = descending ? matches.previousSetBit(nextSlot - 1) : matches.nextSetBit(0);
+
+            while (slot >= 0 && page.size() < limit) {
+                if (skipped++ >= offset) {
+                    page.add(ids[slot]);
+                }
+                slot = descending ? matches.previousSetBit(slot - 1) : matches.nextSetBit(slot + 1);
+            }
+            return page;
+        }
+
+        List<Long> pageByPrice(BitSet matches, int offset, int limit, boolean descending) {
+            int[] order = priceOrder();
+            List<Long> page = new ArrayList<>(limit);
+            int skipped = 0;
+
+            for (int i = 0; i < order.length && page.size() < limit; i++) {
+                int slot = order[descending ? order.length - 1 - i : i];
+                if (matches.get(slot) && skipped++ >= offset) {
+                    page.add(ids[slot]);
+                }
+            }
+            return page;
+        }
+
+        FacetResponse facets(BitSet matches, List<BigDecimal> priceBounds) {
+            long[] bounds = priceBounds.stream()
+                    .mapToLong(bound -> toCents(bound, RoundingMode.CEILING))
+                    .toArray();
+            long[] bucketCounts = new long[bounds.length + 1];
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                bucketCounts[bucketOf(bounds, prices[slot])]++;
+            }
+
+            return new FacetResponse(
+                    matches.cardinality(),
+                    count(byBrand, matches, new HashMap<>()),
+                    count(byCategory, matches, new HashMap<>()),
+                    count(byGender, matches, new EnumMap<>(Gender.class)),
+                    count(byFamily, matches, new EnumMap<>(FragranceFamily.class)),
+                    FacetResponse.PriceBucket.of(priceBounds, bucketCounts));
+        }
+
+        private static <K> Map<K, Long> count(Map<K, BitSet> bitmaps, BitSet matches, Map<K, Long> counts) {
+            bitmaps.forEach((key, bits) -> {
+                BitSet hits = (BitSet) bits.clone();
+                hits.and(matches);
+                if (!hits.isEmpty()) {
+                    counts.put(key, (long) hits.cardinality());
+                }
+            });
+            return counts;
+        }
+
+        // Number of bounds <= price, same as Postgres width_bucket over a threshold array
+        private static int bucketOf(long[] bounds, long price) {
+            int low = 0;
+            int high = bounds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (bounds[mid] <= price) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private BitSet priceRange(BigDecimal min, BigDecimal max) {
+            int[] order = priceOrder();
+            long from = min == null ? Long.MIN_VALUE : toCents(min, RoundingMode.CEILING);
+            long to = max == null ? Long.MAX_VALUE : toCents(max, RoundingMode.FLOOR);
+
+            BitSet result = new BitSet(nextSlot);
+            for (int i = lowerBound(order, from); i < order.length && prices[order[i]] <= to; i++) {
+                result.set(order[i]);
+            }
+            return result;
+        }
+
+        private int lowerBound(int[] order, long price) {
+            int low = 0;
+            int high = order.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[order[mid]] < price) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private synchronized int[] priceOrder() {
+            if (priceOrderDirty) {
+                slotsByPrice = live.stream()
+                        .boxed()
+                        .sorted(Comparator.<Integer>comparingLong(slot -> prices[slot]).thenComparingInt(slot -> slot))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                priceOrderDirty = false;
+            }
+            return slotsByPrice;
+        }
+
+        private static void applyFlag(BitSet result, BitSet flag, boolean expected) {
+            if (expected) {
+                result.and(flag);
+            } else {
+                result.andNot(flag);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.perfume.service.pagination;
+
+import org.perfume.exception.InvalidInputException;
+import org.perfume.model.dto.response.PageResponse;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe cursor tokens. Only the properties used by
+ * {@link SortStrategy} can appear in a cursor, so a token can never make the database seek on an
+ * arbitrary column, and a cursor is only accepted for the sort that issued it.
+ */
+public final class CursorCodec {
+
+    private static final Map<String, Function<String, Object>> KEY_PARSERS = Map.of(
+            "id", Long::valueOf,
+            "createdAt", LocalDateTime::parse,
+            "price", BigDecimal::new,
+            "discountedPrice", BigDecimal::new,
+            "name", value -> value,
+            "isBestseller", Boolean::valueOf,
+            "isFeatured", Boolean::valueOf
+    );
+
+    private static final String FORWARD = "f";
+    private static final String BACKWARD = "b";
+
+    private CursorCodec() {
+    }
+
+    public static KeysetScrollPosition decode(String cursor, SortStrategy strategy) {
+        return decode(cursor, strategy.getProperties());
+    }
+
+    /**
+     * Decodes a cursor for a keyset over {@code properties}. Spring Data appends the id to a sort
+     * that does not end in it, so the cursor must carry exactly those properties plus the id;
+     * anything else was issued for another sort or forged.
+     */
+    public static KeysetScrollPosition decode(String cursor, List<String> properties) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("&");
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 1; i < parts.length; i++) {
+                String[] pair = parts[i].split("=", 2);
+                Function<String, Object> parser = KEY_PARSERS.get(pair[0]);
+                if (parser == null || pair.length != 2) {
+                    throw new InvalidInputException("Invalid cursor");
+                }
+                keys.put(pair[0], parser.apply(URLDecoder.decode(pair[1], StandardCharsets.UTF_8)));
+            }
+
+            Set<String> expected = new LinkedHashSet<>(properties);
+            expected.add("id");
+            if (!keys.keySet().equals(expected)) {
+                throw new InvalidInputException("Cursor does not match the requested sort");
+            }
+
+            return switch (parts[0]) {
+                case FORWARD -> ScrollPosition.forward(keys);
+                case BACKWARD -> ScrollPosition.backward(keys);
+                default -> throw new InvalidInputException("Invalid cursor");
+            };
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidInputException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Cursor for the page after {@code window}, or null when the window is the last one.
+     */
+    public static String next(Window<?> window, KeysetScrollPosition requested) {
+        boolean more = requested.scrollsForward() ? window.hasNext() : !requested.isInitial();
+        if (!more || window.isEmpty()) {
+            return null;
+        }
+        return encode(FORWARD, ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys());
+    }
+
+    /**
+     * Cursor for the page before {@code window}, or null when the window is the first one.
+     */
+    public static String previous(Window<?> window, KeysetScrollPosition requested) {
+        boolean more = requested.scrollsForward() ? !requested.isInitial() : window.hasNext();
+        if (!more || window.isEmpty()) {
+            return null;
+        }
+        return encode(BACKWARD, ((KeysetScrollPosition) window.positionAt(0)).getKeys());
+    }
+
+    /**
+     * Builds a cursor page; {@code total} is -1 when the caller skipped the count query.
+     */
+    public static <T> PageResponse<T> toPageResponse(Window<T> window, KeysetScrollPosition requested, int size, long total) {
+        String nextCursor = next(window, requested);
+        String prevCursor = previous(window, requested);
+
+        return new PageResponse<>(
+                window.getContent(),
+                0,
+                size,
+                total,
+                total < 0 ? -1 : (int) ((total + size - 1) / size),
+                nextCursor == null,
+                prevCursor == null,
+                nextCursor,
+                prevCursor
+        );
+    }
+
+    private static String encode(String direction, Map<String, ?> keys) {
+        StringBuilder token = new StringBuilder(direction);
+        keys.forEach((key, value) -> token.append('&')
+                .append(key)
+                .append('=')
+                .append(URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8)));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
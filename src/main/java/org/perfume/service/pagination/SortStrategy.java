@@ -0,0 +1,87 @@
+package org.perfume.service.pagination;
+
+import lombok.Getter;
+import org.perfume.exception.InvalidInputException;
+import org.perfume.model.dto.request.ProductFilterRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The catalog sorts clients may ask for. Each one orders by columns an index already has in that
+ * order and ends in a unique key, so the same sort works for offset pages and keyset cursors.
+ * Anything else is rejected before a query is built.
+ */
+@Getter
+public enum SortStrategy {
+
+    ID("products_pkey", List.of("id"), List.of("id")),
+    PRICE("idx_products_price", List.of("price", "id"), List.of("price")),
+    DISCOUNTED_PRICE("idx_products_discounted_price", List.of("discountedPrice", "id"), List.of("discountedPrice", "discounted-price")),
+    NEWEST("idx_products_created", List.of("createdAt", "id"), List.of("newest", "createdAt")),
+    POPULARITY("idx_products_popularity", List.of("isBestseller", "isFeatured", "createdAt", "id"), List.of("popularity", "popular")),
+    // Names are unique, so the name alone is a keyset
+    NAME("uq_products_name", List.of("name"), List.of("name"));
+
+    private static final Map<String, SortStrategy> BY_NAME = Arrays.stream(values())
+            .flatMap(strategy -> strategy.names.stream().map(name -> Map.entry(name.toLowerCase(), strategy)))
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+
+    private final String index;
+    private final List<String> properties;
+    private final List<String> names;
+
+    SortStrategy(String index, List<String> properties, List<String> names) {
+        this.index = index;
+        this.properties = properties;
+        this.names = names;
+    }
+
+    public static SortStrategy of(String sortBy) {
+        SortStrategy strategy = sortBy == null ? ID : BY_NAME.get(sortBy.toLowerCase());
+        if (strategy == null) {
+            throw new InvalidInputException("Unsupported sort: " + sortBy + ". Supported sorts: "
+                    + Stream.of(values()).map(value -> value.names.get(0)).collect(Collectors.joining(", ")));
+        }
+        return strategy;
+    }
+
+    public static SortStrategy of(ProductFilterRequest filter) {
+        return of(filter.getSortBy());
+    }
+
+    public Sort sort(String direction) {
+        return Sort.by("desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC,
+                properties.toArray(String[]::new));
+    }
+
+    /**
+     * How the database is expected to produce this order for the filter: walking the index in
+     * order, or a bounded top-N sort over the matching rows when an equality filter leads to a
+     * different index. Neither spills to disk, since every query here is limited.
+     */
+    public SortCost expectedCost(ProductFilterRequest filter) {
+        boolean narrowed = filter.getBrandId() != null || filter.getCategoryId() != null
+                || filter.getFragranceFamily() != null || filter.getGender() != null;
+        boolean searched = filter.getSearch() != null && !filter.getSearch().isBlank();
+        if (searched) {
+            return SortCost.TOP_N_SORT;
+        }
+        if (!narrowed) {
+            return SortCost.INDEX_ORDER;
+        }
+        // (brand_id, discounted_price) and (category_id, discounted_price) keep price order per filter
+        boolean brandOrCategoryOnly = filter.getFragranceFamily() == null && filter.getGender() == null
+                && (filter.getBrandId() == null || filter.getCategoryId() == null);
+        return this == DISCOUNTED_PRICE && brandOrCategoryOnly ? SortCost.INDEX_ORDER : SortCost.TOP_N_SORT;
+    }
+
+    public enum SortCost {
+        INDEX_ORDER,
+        TOP_N_SORT
+    }
+}
@@ -0,0 +1,298 @@
+package org.perfume.service.similarity;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.perfume.config.CacheConfig;
+import org.perfume.domain.entity.PerfumeSimilarity;
+import org.perfume.domain.repo.PerfumeDao;
+import org.perfume.domain.repo.PerfumeSimilarityDao;
+import org.perfume.domain.repo.PerfumeSimilarityJdbcDao;
+import org.perfume.model.enums.FragranceFamily;
+import org.perfume.model.enums.Gender;
+import org.perfume.service.cache.InvalidationGuard;
+import org.perfume.service.event.PerfumeChangedEvent;
+import org.perfume.service.event.PerfumeChangedEvent.ChangeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputes the top-K most similar perfumes for every perfume. Scores combine fragrance family,
+ * gender, brand, category and price proximity. Full rebuilds score all pairs in parallel and keep
+ * the feature columns in memory. Writes are coalesced: the changed rows are patched into those
+ * columns, only the changed perfumes and the lists that pointed at them are recomputed, and the
+ * scheduled rebuild picks up any new neighbours that incremental updates missed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SimilarityEngine {
+
+    private static final Set<ChangeType> FEATURE_CHANGES = EnumSet.of(ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED);
+
+    private static final double FAMILY_WEIGHT = 0.35;
+    private static final double GENDER_WEIGHT = 0.2;
+    private static final double BRAND_WEIGHT = 0.15;
+    private static final double CATEGORY_WEIGHT = 0.1;
+    private static final double PRICE_WEIGHT = 0.2;
+
+    private final PerfumeDao perfumeDao;
+    private final PerfumeSimilarityDao similarityDao;
+    private final PerfumeSimilarityJdbcDao similarityJdbcDao;
+    private final CacheManager cacheManager;
+    private final InvalidationGuard invalidationGuard;
+
+    @Value("${catalog.similarity.top-k:12}")
+    private int topK;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "perfume-similarity");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    // Only touched on the executor thread
+    private Features features;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (similarityDao.count() == 0) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    @Scheduled(cron = "${catalog.similarity.rebuild-cron:0 0 4 * * *}")
+    public void scheduledRebuild() {
+        executor.execute(this::rebuild);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPerfumeChanged(PerfumeChangedEvent event) {
+        if (FEATURE_CHANGES.contains(event.getType())) {
+            // Bulk imports publish one event per chunk; they share a single refresh while one is queued
+            pendingIds.addAll(event.getPerfumeIds());
+            if (refreshPending.compareAndSet(false, true)) {
+                executor.execute(this::refresh);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void rebuild() {
+        try {
+            long started = System.currentTimeMillis();
+            Features fresh = new Features(perfumeDao.findIndexRows());
+            List<PerfumeSimilarity> rows = IntStream.range(0, fresh.size())
+                    .parallel()
+                    .mapToObj(i -> fresh.neighbours(i, topK))
+                    .flatMap(List::stream)
+                    .toList();
+
+            similarityJdbcDao.replaceAll(rows);
+            features = fresh;
+            clearCache();
+            log.info("Similarity rebuilt for {} perfumes in {} ms", fresh.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Similarity rebuild failed", e);
+        }
+    }
+
+    private void refresh() {
+        refreshPending.set(false);
+        Set<Long> changedIds = new HashSet<>(pendingIds);
+        pendingIds.removeAll(changedIds);
+        if (changedIds.isEmpty()) {
+            return;
+        }
+        if (features == null) {
+            // No columns yet (startup rebuild skipped or failed): the full rebuild covers these ids too
+            rebuild();
+            return;
+        }
+
+        try {
+            Set<Long> affected = new HashSet<>(changedIds);
+            affected.addAll(similarityDao.findPerfumeIdsReferencing(changedIds));
+
+            Features patched = features.with(perfumeDao.findIndexRowsByIds(changedIds), changedIds);
+            features = patched;
+            List<PerfumeSimilarity> rows = affected.parallelStream()
+                    .map(patched::indexOf)
+                    .filter(i -> i >= 0)
+                    .flatMap(i -> patched.neighbours(i, topK).stream())
+                    .toList();
+
+            similarityJdbcDao.replace(affected, rows);
+            clearCache();
+        } catch (RuntimeException e) {
+            log.error("Similarity refresh failed for {}", changedIds, e);
+        }
+    }
+
+    private void clearCache() {
+        invalidationGuard.invalidating();
+        Cache similar = cacheManager.getCache(CacheConfig.SIMILAR_PERFUMES);
+        if (similar != null) {
+            similar.clear();
+        }
+    }
+
+    /**
+     * Column arrays of the scoring features, built from {@link PerfumeDao#findIndexRows()}. Instances
+     * are not changed once built; {@link #with} returns a patched copy.
+     */
+    private static final class Features {
+
+        private final long[] ids;
+        private final long[] brands;
+        private final long[] categories;
+        private final Gender[] genders;
+        private final FragranceFamily[] families;
+        private final double[] prices;
+        private final Map<Long, Integer> indexById;
+        private int size;
+
+        Features(List<Object[]> rows) {
+            this(rows.size());
+            rows.forEach(this::add);
+        }
+
+        private Features(int capacity) {
+            ids = new long[capacity];
+            brands = new long[capacity];
+            categories = new long[capacity];
+            genders = new Gender[capacity];
+            families = new FragranceFamily[capacity];
+            prices = new double[capacity];
+            indexById = new HashMap<>(capacity * 2);
+        }
+
+        /**
+         * Copy with {@code changedIds} replaced by {@code rows}; a changed id without a row was
+         * deleted, and ids not seen before are appended.
+         */
+        Features with(List<Object[]> rows, Set<Long> changedIds) {
+            Map<Long, Object[]> rowsById = new HashMap<>(rows.size() * 2);
+            rows.forEach(row -> rowsById.put((Long) row[0], row));
+
+            Features patched = new Features(size + rows.size());
+            for (int j = 0; j < size; j++) {
+                if (!changedIds.contains(ids[j])) {
+                    patched.copy(this, j);
+                } else {
+                    Object[] row = rowsById.remove(ids[j]);
+                    if (row != null) {
+                        patched.add(row);
+                    }
+                }
+            }
+            rowsById.values().forEach(patched::add);
+            return patched;
+        }
+
+        private void add(Object[] row) {
+            int i = size++;
+            ids[i] = (Long) row[0];
+            brands[i] = (Long) row[1];
+            categories[i] = (Long) row[2];
+            genders[i] = (Gender) row[3];
+            families[i] = (FragranceFamily) row[4];
+            prices[i] = ((BigDecimal) row[7]).doubleValue();
+            indexById.put(ids[i], i);
+        }
+
+        private void copy(Features from, int j) {
+            int i = size++;
+            ids[i] = from.ids[j];
+            brands[i] = from.brands[j];
+            categories[i] = from.categories[j];
+            genders[i] = from.genders[j];
+            families[i] = from.families[j];
+            prices[i] = from.prices[j];
+            indexById.put(ids[i], i);
+        }
+
+        int size() {
+            return size;
+        }
+
+        int indexOf(Long id) {
+            return indexById.getOrDefault(id, -1);
+        }
+
+        List<PerfumeSimilarity> neighbours(int i, int k) {
+            // Min-heap of the best k so far; the weakest candidate sits on top
+            PriorityQueue<Candidate> best = new PriorityQueue<>(k + 1,
+                    Comparator.comparingDouble(Candidate::score).thenComparing(Candidate::index, Comparator.reverseOrder()));
+
+            for (int j = 0; j < size; j++) {
+                if (j == i) {
+                    continue;
+                }
+                double score = score(i, j);
+                // j only grows, so on a tie the candidate already kept wins and nothing is allocated
+                if (best.size() < k) {
+                    best.add(new Candidate(j, score));
+                } else if (score > best.peek().score()) {
+                    best.poll();
+                    best.add(new Candidate(j, score));
+                }
+            }
+
+            List<PerfumeSimilarity> result = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                Candidate candidate = best.poll();
+                result.add(new PerfumeSimilarity(null, ids[i], ids[candidate.index()], candidate.score(), 0));
+            }
+            Collections.reverse(result);
+            for (int rank = 0; rank < result.size(); rank++) {
+                result.get(rank).setRank(rank + 1);
+            }
+            return result;
+        }
+
+        private double score(int i, int j) {
+            double score = 0;
+            if (families[i] == families[j]) {
+                score += FAMILY_WEIGHT;
+            }
+            if (genders[i] == genders[j]) {
+                score += GENDER_WEIGHT;
+            } else if (genders[i] == Gender.UNISEX || genders[j] == Gender.UNISEX) {
+                score += GENDER_WEIGHT / 2;
+            }
+            if (brands[i] == brands[j]) {
+                score += BRAND_WEIGHT;
+            }
+            if (categories[i] == categories[j]) {
+                score += CATEGORY_WEIGHT;
+            }
+
+            double higher = Math.max(prices[i], prices[j]);
+            score += PRICE_WEIGHT * (higher == 0 ? 1 : 1 - Math.abs(prices[i] - prices[j]) / higher);
+            return score;
+        }
+    }
+
+    private record Candidate(int index, double score) {
+    }
+}
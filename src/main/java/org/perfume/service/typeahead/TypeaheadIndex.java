@@ -0,0 +1,376 @@
+package org.perfume.service.typeahead;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.perfume.domain.repo.BrandDao;
+import org.perfume.domain.repo.PerfumeDao;
+import org.perfume.model.dto.response.SuggestionResponse;
+import org.perfume.model.enums.SuggestionType;
+import org.perfume.service.event.BrandChangedEvent;
+import org.perfume.service.event.PerfumeChangedEvent;
+import org.perfume.service.event.PerfumeChangedEvent.ChangeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix trie over perfume and brand names. Every word of a name is indexed, so "eli" finds
+ * "Sauvage Elixir" and "her" finds "Terre d'Hermès". Each node keeps its best suggestions by
+ * popularity, so a lookup is one walk down the prefix with no database access. Single writes
+ * only recompute the nodes on their path; writes that land while a rebuild is reading are queued
+ * and replayed onto the new trie.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TypeaheadIndex {
+
+    private static final Set<ChangeType> INDEXED_CHANGES =
+            EnumSet.of(ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED, ChangeType.FEATURED, ChangeType.BESTSELLER);
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final long BESTSELLER_BOOST = 10;
+    private static final long FEATURED_BOOST = 5;
+
+    private final PerfumeDao perfumeDao;
+    private final BrandDao brandDao;
+
+    @Value("${catalog.typeahead.max-suggestions:10}")
+    private int maxSuggestions;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guards both pending sets together with the rebuilding flag
+    private final Object pendingLock = new Object();
+    private final Set<Long> pendingPerfumeIds = new HashSet<>();
+    private final Set<Long> pendingBrandIds = new HashSet<>();
+    private volatile Trie trie;
+    private volatile boolean rebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${catalog.typeahead.rebuild-interval:15m}", initialDelayString = "${catalog.typeahead.rebuild-interval:15m}")
+    public void rebuild() {
+        synchronized (pendingLock) {
+            rebuilding = true;
+        }
+        try {
+            List<Entry> entries = new ArrayList<>();
+            perfumeDao.findSuggestionRows().forEach(row -> entries.add(perfumeEntry(row)));
+            brandDao.findSuggestionRows().forEach(row -> entries.add(brandEntry(row)));
+            Trie fresh = Trie.build(entries, maxSuggestions);
+
+            lock.writeLock().lock();
+            try {
+                trie = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Typeahead index built with {} names", fresh.size());
+        } finally {
+            // Clearing the flag and taking the queued ids in one step: a listener either queued its
+            // ids before this drain or sees the flag cleared and refreshes the trie itself
+            Set<Long> perfumeReplay;
+            Set<Long> brandReplay;
+            synchronized (pendingLock) {
+                rebuilding = false;
+                perfumeReplay = drain(pendingPerfumeIds);
+                brandReplay = drain(pendingBrandIds);
+            }
+
+            // Writes queued while the rows were read may be missing from the new trie
+            if (!perfumeReplay.isEmpty()) {
+                refreshPerfumes(perfumeReplay, false);
+            }
+            if (!brandReplay.isEmpty()) {
+                refreshBrands(brandReplay, false);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPerfumeChanged(PerfumeChangedEvent event) {
+        if (!INDEXED_CHANGES.contains(event.getType())) {
+            return;
+        }
+        synchronized (pendingLock) {
+            if (rebuilding) {
+                pendingPerfumeIds.addAll(event.getPerfumeIds());
+                return;
+            }
+        }
+        refreshPerfumes(event.getPerfumeIds(), event.getType() == ChangeType.DELETED);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        synchronized (pendingLock) {
+            if (rebuilding) {
+                pendingBrandIds.add(event.getBrandId());
+                return;
+            }
+        }
+        refreshBrands(Set.of(event.getBrandId()), event.getType() == BrandChangedEvent.ChangeType.DELETED);
+    }
+
+    // Caller holds pendingLock. Without a trie (first build failed) the ids wait for the next one.
+    private Set<Long> drain(Set<Long> pending) {
+        if (trie == null || pending.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> replay = new HashSet<>(pending);
+        pending.clear();
+        return replay;
+    }
+
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank() || limit < 1 || trie == null) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return trie.top(normalize(prefix), Math.min(limit, maxSuggestions)).stream()
+                    .map(entry -> new SuggestionResponse(entry.type(), entry.id(), entry.text()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-reads the given perfumes (a missing row means deleted) and the brands whose perfume count
+     * they moved: the old and new brand of every perfume that was added, removed or moved.
+     */
+    private void refreshPerfumes(Collection<Long> ids, boolean deleted) {
+        Trie current = trie;
+        if (current == null) {
+            return;
+        }
+
+        List<Entry> entries = deleted
+                ? List.of()
+                : perfumeDao.findSuggestionRowsByIds(ids).stream().map(TypeaheadIndex::perfumeEntry).toList();
+        Map<Long, Long> newBrands = new HashMap<>();
+        entries.forEach(entry -> newBrands.put(entry.id(), entry.brandId()));
+
+        Set<Long> brandIds = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                Long oldBrand = current.brandOf(id);
+                Long newBrand = newBrands.get(id);
+                if (!Objects.equals(oldBrand, newBrand)) {
+                    if (oldBrand != null) {
+                        brandIds.add(oldBrand);
+                    }
+                    if (newBrand != null) {
+                        brandIds.add(newBrand);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Object[]> brandRows = brandIds.isEmpty() ? List.of() : brandDao.findSuggestionRowsByIds(brandIds);
+
+        lock.writeLock().lock();
+        try {
+            ids.forEach(id -> current.remove(SuggestionType.PERFUME, id));
+            entries.forEach(current::put);
+            brandRows.forEach(row -> current.put(brandEntry(row)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refreshBrands(Collection<Long> ids, boolean deleted) {
+        Trie current = trie;
+        if (current == null) {
+            return;
+        }
+
+        List<Object[]> rows = deleted ? List.of() : brandDao.findSuggestionRowsByIds(ids);
+
+        lock.writeLock().lock();
+        try {
+            ids.forEach(id -> current.remove(SuggestionType.BRAND, id));
+            rows.forEach(row -> current.put(brandEntry(row)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Entry perfumeEntry(Object[] row) {
+        long weight = ((Number) row[4]).longValue()
+                + (Boolean.TRUE.equals(row[3]) ? BESTSELLER_BOOST : 0)
+                + (Boolean.TRUE.equals(row[2]) ? FEATURED_BOOST : 0);
+        return new Entry(SuggestionType.PERFUME, (Long) row[0], (String) row[1], weight, (Long) row[5]);
+    }
+
+    private static Entry brandEntry(Object[] row) {
+        return new Entry(SuggestionType.BRAND, (Long) row[0], (String) row[1], ((Number) row[2]).longValue(), null);
+    }
+
+    static String normalize(String text) {
+        return MARKS.matcher(Normalizer.normalize(text.trim(), Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    // brandId is only set on perfumes, so a delete still knows which brand count it moved
+    private record Entry(SuggestionType type, Long id, String text, long weight, Long brandId) {
+
+        static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::weight).reversed()
+                .thenComparing(Entry::text, String.CASE_INSENSITIVE_ORDER);
+
+        // Name from each word onwards, so every word is a prefix entry point
+        List<String> keys() {
+            String normalized = normalize(text);
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < normalized.length(); i++) {
+                if (Character.isLetterOrDigit(normalized.charAt(i))
+                        && (i == 0 || !Character.isLetterOrDigit(normalized.charAt(i - 1)))) {
+                    keys.add(normalized.substring(i));
+                }
+            }
+            return keys;
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Entry> terminals = new ArrayList<>(1);
+        private List<Entry> top = List.of();
+    }
+
+    private static final class Trie {
+
+        private final int capacity;
+        private final Node root = new Node();
+        private final Map<String, Entry> entries = new HashMap<>();
+
+        Trie(int capacity) {
+            this.capacity = capacity;
+        }
+
+        // Bulk load: link every name first, then fill the best lists in one post-order pass
+        static Trie build(List<Entry> entries, int capacity) {
+            Trie trie = new Trie(capacity);
+            for (Entry entry : entries) {
+                trie.entries.put(key(entry.type(), entry.id()), entry);
+                for (String key : entry.keys()) {
+                    List<Node> path = trie.path(key, true);
+                    path.get(path.size() - 1).terminals.add(entry);
+                }
+            }
+            trie.root.children.values().forEach(trie::recomputeAll);
+            return trie;
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        Long brandOf(Long perfumeId) {
+            Entry entry = entries.get(key(SuggestionType.PERFUME, perfumeId));
+            return entry == null ? null : entry.brandId();
+        }
+
+        void put(Entry entry) {
+            remove(entry.type(), entry.id());
+            entries.put(key(entry.type(), entry.id()), entry);
+            for (String key : entry.keys()) {
+                List<Node> path = path(key, true);
+                path.get(path.size() - 1).terminals.add(entry);
+                recompute(path);
+            }
+        }
+
+        void remove(SuggestionType type, Long id) {
+            Entry entry = entries.remove(key(type, id));
+            if (entry == null) {
+                return;
+            }
+            for (String key : entry.keys()) {
+                List<Node> path = path(key, false);
+                if (path.size() == key.length() + 1) {
+                    path.get(path.size() - 1).terminals.remove(entry);
+                    prune(path, key);
+                    recompute(path);
+                }
+            }
+        }
+
+        List<Entry> top(String prefix, int limit) {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            return node.top.size() <= limit ? node.top : node.top.subList(0, limit);
+        }
+
+        private List<Node> path(String key, boolean create) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length(); i++) {
+                node = create
+                        ? node.children.computeIfAbsent(key.charAt(i), c -> new Node())
+                        : node.children.get(key.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                path.add(node);
+            }
+            return path;
+        }
+
+        // Drops nodes that no longer lead to any name
+        private void prune(List<Node> path, String key) {
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node node = path.get(i);
+                if (!node.children.isEmpty() || !node.terminals.isEmpty()) {
+                    return;
+                }
+                path.get(i - 1).children.remove(key.charAt(i - 1));
+                path.remove(i);
+            }
+        }
+
+        // Bottom-up; the root is skipped since an empty prefix is never looked up
+        private void recompute(List<Node> path) {
+            for (int i = path.size() - 1; i > 0; i--) {
+                refreshTop(path.get(i));
+            }
+        }
+
+        private void recomputeAll(Node node) {
+            node.children.values().forEach(this::recomputeAll);
+            refreshTop(node);
+        }
+
+        // A node's best entries come from its own names and its children's best
+        private void refreshTop(Node node) {
+            Set<Entry> candidates = new HashSet<>(node.terminals);
+            node.children.values().forEach(child -> candidates.addAll(child.top));
+            node.top = candidates.stream()
+                    .sorted(Entry.RANKING)
+                    .limit(capacity)
+                    .toList();
+        }
+
+        private static String key(SuggestionType type, Long id) {
+            return type + ":" + id;
+        }
+    }
+}
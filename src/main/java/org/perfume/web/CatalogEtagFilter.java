@@ -0,0 +1,159 @@
+package org.perfume.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.perfume.service.cache.CatalogVersions;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conditional GET for public catalog reads. The ETag is a catalog version stamp computed before
+ * the request runs, so a matching If-None-Match is answered with 304 without touching the
+ * service layer. The stamp is taken before the query, so a response is never newer-tagged than
+ * its content. Stamps come from per-instance counters, so behind a load balancer a 304 can be
+ * stale for up to {@code catalog.etag.max-age}; see {@link CatalogVersions}.
+ * <p>
+ * The ETag is only sent on 2xx responses and also covers the request URI, so a client can only
+ * hold a matching tag for a URI that resolved at that version. A 404, or a route that shares the
+ * counter but has no resource behind it, never earns a 304. {@code If-None-Match: *} is not
+ * honoured, since that would need the resource to be resolved first.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class CatalogEtagFilter extends OncePerRequestFilter {
+
+    private static final Pattern PERFUME_PATH = Pattern.compile("^/api/products/(\\d+)/?$");
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final CatalogVersions catalogVersions;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method)) || version(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String etag = "W/\"" + version(request) + "." + Integer.toHexString(uri(request).hashCode()) + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        EtagResponse tagged = new EtagResponse(response, etag);
+        filterChain.doFilter(request, tagged);
+        tagged.stamp();
+    }
+
+    private static String uri(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query;
+    }
+
+    private String version(HttpServletRequest request) {
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        Matcher perfume = PERFUME_PATH.matcher(path);
+        if (perfume.matches()) {
+            return catalogVersions.perfume(Long.valueOf(perfume.group(1)));
+        }
+        if (path.startsWith("/api/products")) {
+            return catalogVersions.perfumes();
+        }
+        if (path.startsWith("/api/brands")) {
+            return catalogVersions.brands();
+        }
+        if (path.startsWith("/api/categories")) {
+            return catalogVersions.categories();
+        }
+        return null;
+    }
+
+    // Weak comparison, as If-None-Match requires
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(etag) || tag.equals(opaque) || tag.equals("W/" + opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Adds the ETag just before the response commits, once the handler has settled on a 2xx status
+    private static final class EtagResponse extends HttpServletResponseWrapper {
+
+        private final String etag;
+        private boolean stamped;
+
+        EtagResponse(HttpServletResponse response, String etag) {
+            super(response);
+            this.etag = etag;
+        }
+
+        void stamp() {
+            if (!stamped && !isCommitted() && getStatus() / 100 == 2) {
+                setHeader(HttpHeaders.ETAG, etag);
+            }
+            stamped = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stamp();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            stamped = true;
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            stamped = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            stamped = true;
+            super.sendRedirect(location);
+        }
+    }
+}
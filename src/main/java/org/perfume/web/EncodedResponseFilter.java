@@ -0,0 +1,62 @@
+package org.perfume.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.perfume.exception.NotFoundException;
+import org.perfume.service.cache.EncodedResponse;
+import org.perfume.service.cache.EncodedResponseCache;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Answers single-perfume reads from {@link EncodedResponseCache}, so they skip the dispatcher and
+ * Jackson. Runs after {@link CatalogEtagFilter}, which has already answered 304 or tags the body
+ * written here. Unknown ids continue down the chain and get the regular 404, which carries no ETag.
+ * <p>
+ * There is no controller for {@code GET /api/products/{id}} yet, so this filter owns the route. A
+ * controller added later must hand its reads to {@link EncodedResponseCache} too, or this filter
+ * will keep answering in front of it.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class EncodedResponseFilter extends OncePerRequestFilter {
+
+    private static final Pattern PERFUME_PATH = Pattern.compile("^/api/products/(\\d+)/?$");
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final EncodedResponseCache encodedResponseCache;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !PERFUME_PATH.matcher(PATH_HELPER.getPathWithinApplication(request)).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Matcher perfume = PERFUME_PATH.matcher(PATH_HELPER.getPathWithinApplication(request));
+        EncodedResponse encoded;
+        try {
+            encoded = perfume.matches() ? encodedResponseCache.perfume(Long.valueOf(perfume.group(1))) : null;
+        } catch (NotFoundException | NumberFormatException e) {
+            encoded = null;
+        }
+
+        if (encoded == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        EncodedResponseWriter.write(request, response, encoded);
+    }
+}
@@ -0,0 +1,107 @@
+CREATE TABLE users (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name           VARCHAR(255) NOT NULL,
+    email          VARCHAR(255) NOT NULL,
+    password       VARCHAR(255) NOT NULL,
+    phone_number   VARCHAR(255),
+    is_google_user BOOLEAN,
+    role           VARCHAR(255) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6),
+    CONSTRAINT uq_users_email UNIQUE (email)
+);
+
+CREATE TABLE brands (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    description TEXT,
+    logo_url    VARCHAR(255),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT uq_brands_name UNIQUE (name)
+);
+
+CREATE TABLE categories (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    description TEXT,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT uq_categories_name UNIQUE (name)
+);
+
+CREATE TABLE products (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name             VARCHAR(255) NOT NULL,
+    description      TEXT,
+    price            NUMERIC(38, 2) NOT NULL,
+    discount_percent INTEGER,
+    discounted_price NUMERIC(38, 2)
+        GENERATED ALWAYS AS (ROUND(price * (100 - COALESCE(discount_percent, 0)) / 100, 2)) STORED,
+    image_url        VARCHAR(255),
+    stock_quantity   INTEGER,
+    brand_id         BIGINT NOT NULL REFERENCES brands (id),
+    category_id      BIGINT NOT NULL REFERENCES categories (id),
+    is_featured      BOOLEAN,
+    is_bestseller    BOOLEAN,
+    fragrance_family VARCHAR(255) NOT NULL CHECK (fragrance_family IN
+        ('FLORAL', 'ORIENTAL', 'WOODY', 'FRESH', 'FRUITY', 'SPICY', 'CITRUS', 'AQUATIC', 'GREEN', 'GOURMAND')),
+    gender           VARCHAR(255) NOT NULL CHECK (gender IN ('MALE', 'FEMALE', 'UNISEX')),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    CONSTRAINT uq_products_name UNIQUE (name)
+);
+
+CREATE TABLE carts (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT NOT NULL REFERENCES users (id),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uq_carts_user UNIQUE (user_id)
+);
+
+CREATE TABLE cart_items (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    cart_id    BIGINT NOT NULL REFERENCES carts (id),
+    perfume_id BIGINT NOT NULL REFERENCES products (id),
+    quantity   INTEGER NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE favorites (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT NOT NULL REFERENCES users (id),
+    perfume_id BIGINT NOT NULL REFERENCES products (id),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE orders (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          BIGINT NOT NULL REFERENCES users (id),
+    total_amount     NUMERIC(38, 2) NOT NULL,
+    status           VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED')),
+    whatsapp_number  VARCHAR(255) NOT NULL,
+    delivery_address VARCHAR(255),
+    customer_notes   TEXT,
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6)
+);
+
+CREATE TABLE order_items (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id     BIGINT NOT NULL REFERENCES orders (id),
+    perfume_id   BIGINT NOT NULL REFERENCES products (id),
+    quantity     INTEGER NOT NULL,
+    unit_price   NUMERIC(38, 2) NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    brand_name   VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE perfume_similarities (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    perfume_id     BIGINT NOT NULL,
+    similar_id     BIGINT NOT NULL,
+    score          FLOAT(53) NOT NULL,
+    neighbour_rank INTEGER NOT NULL
+);
@@ -0,0 +1,37 @@
+-- Indexes follow the *Dao queries; foreign keys are not indexed by Postgres on their own.
+
+-- products: brand/category listings, similar perfumes and price-filtered catalog pages
+CREATE INDEX idx_products_brand_price ON products (brand_id, discounted_price);
+CREATE INDEX idx_products_category_price ON products (category_id, discounted_price);
+CREATE INDEX idx_products_discounted_price ON products (discounted_price, id);
+CREATE INDEX idx_products_price ON products (price, id);
+CREATE INDEX idx_products_family_gender ON products (fragrance_family, gender);
+-- latest perfumes and createdAt keyset pages
+CREATE INDEX idx_products_created ON products (created_at DESC, id DESC);
+-- homepage collections read only their own slice
+CREATE INDEX idx_products_featured ON products (created_at DESC, id DESC) WHERE is_featured;
+CREATE INDEX idx_products_bestseller ON products (created_at DESC, id DESC) WHERE is_bestseller;
+CREATE INDEX idx_products_in_stock ON products (created_at DESC, id DESC) WHERE stock_quantity > 0;
+CREATE INDEX idx_products_discounted ON products (discount_percent DESC, id DESC) WHERE discount_percent > 0;
+
+-- orders: user history (keyset + latest order + total spent), admin status and latest lists
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_status_created ON orders (status, created_at DESC);
+CREATE INDEX idx_orders_created ON orders (created_at DESC);
+
+CREATE INDEX idx_order_items_order ON order_items (order_id);
+CREATE INDEX idx_order_items_perfume ON order_items (perfume_id);
+
+-- one line per perfume in a cart; also serves cart_id lookups
+CREATE UNIQUE INDEX uq_cart_items_cart_perfume ON cart_items (cart_id, perfume_id);
+CREATE INDEX idx_cart_items_perfume ON cart_items (perfume_id);
+
+-- one favorite per user and perfume; user list is ordered by created_at
+CREATE UNIQUE INDEX uq_favorites_user_perfume ON favorites (user_id, perfume_id);
+CREATE INDEX idx_favorites_user_created ON favorites (user_id, created_at DESC);
+CREATE INDEX idx_favorites_perfume ON favorites (perfume_id);
+
+CREATE INDEX idx_perfume_similarities_perfume_rank ON perfume_similarities (perfume_id, neighbour_rank);
+CREATE INDEX idx_perfume_similarities_similar ON perfume_similarities (similar_id);
+
+CREATE INDEX idx_users_created ON users (created_at DESC);
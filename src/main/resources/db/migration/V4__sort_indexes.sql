@@ -0,0 +1,14 @@
+-- Keyset cursors compare sort columns with < and =, which never match NULL
+UPDATE products SET is_featured = false WHERE is_featured IS NULL;
+UPDATE products SET is_bestseller = false WHERE is_bestseller IS NULL;
+UPDATE products SET created_at = COALESCE(updated_at, now()) WHERE created_at IS NULL;
+
+ALTER TABLE products
+    ALTER COLUMN is_featured SET DEFAULT false,
+    ALTER COLUMN is_featured SET NOT NULL,
+    ALTER COLUMN is_bestseller SET DEFAULT false,
+    ALTER COLUMN is_bestseller SET NOT NULL,
+    ALTER COLUMN created_at SET NOT NULL;
+
+-- popularity sort: bestsellers, then featured, then newest
+CREATE INDEX idx_products_popularity ON products (is_bestseller DESC, is_featured DESC, created_at DESC, id DESC);
@@ -0,0 +1,2 @@
+-- Orders placed before checkout reserved stock never took any, so cancelling them must not give any back
+ALTER TABLE orders ADD COLUMN stock_reserved BOOLEAN NOT NULL DEFAULT false;
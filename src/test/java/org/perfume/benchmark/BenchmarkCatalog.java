@@ -0,0 +1,68 @@
+package org.perfume.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Seeds a synthetic catalog with set-based inserts and times calls against it. Benchmarks run
+ * inside a test transaction, so the rows roll back afterwards.
+ */
+public final class BenchmarkCatalog {
+
+    public static final int PERFUMES = Integer.getInteger("benchmark.perfumes", 100_000);
+    public static final int BRANDS = 200;
+    public static final int CATEGORIES = 20;
+
+    private static final int MEASURED_RUNS = 100;
+
+    private BenchmarkCatalog() {
+    }
+
+    public static void seed(JdbcTemplate jdbc) {
+        jdbc.update("insert into brands(name) select 'Benchmark brand ' || g from generate_series(1, ?) g", BRANDS);
+        jdbc.update("insert into categories(name) select 'Benchmark category ' || g from generate_series(1, ?) g", CATEGORIES);
+        jdbc.update("""
+                insert into products(name, description, price, discount_percent, stock_quantity, brand_id, category_id,
+                                     is_featured, is_bestseller, fragrance_family, gender, created_at, updated_at)
+                select 'Benchmark perfume ' || g, 'Benchmark description ' || g, 10 + g % 500, (g % 4) * 10, g % 50,
+                       (select min(id) from brands where name like 'Benchmark brand %') + g % ?,
+                       (select min(id) from categories where name like 'Benchmark category %') + g % ?,
+                       g % 17 = 0, g % 23 = 0,
+                       (array['FLORAL','ORIENTAL','WOODY','FRESH','FRUITY','SPICY','CITRUS','AQUATIC','GREEN','GOURMAND'])[1 + g % 10],
+                       (array['MALE','FEMALE','UNISEX'])[1 + g % 3], now(), now()
+                from generate_series(1, ?) g
+                """, BRANDS, CATEGORIES, PERFUMES);
+        jdbc.execute("analyze brands, categories, products");
+    }
+
+    public static Long brandId(JdbcTemplate jdbc, int offset) {
+        return jdbc.queryForObject("select min(id) + ? from brands where name like 'Benchmark brand %'", Long.class, offset);
+    }
+
+    public static Long categoryId(JdbcTemplate jdbc, int offset) {
+        return jdbc.queryForObject("select min(id) + ? from categories where name like 'Benchmark category %'", Long.class, offset);
+    }
+
+    /**
+     * Mean microseconds per call after a warm-up.
+     */
+    public static long micros(Supplier<?> call) {
+        return micros(call, MEASURED_RUNS);
+    }
+
+    /**
+     * Mean microseconds over {@code runs} calls, after a fifth as many warm-up calls. For calls
+     * that scan the whole catalog, where the default hundred runs would take minutes.
+     */
+    public static long micros(Supplier<?> call, int runs) {
+        for (int i = 0; i < Math.max(1, runs / 5); i++) {
+            call.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            call.get();
+        }
+        return (System.nanoTime() - start) / runs / 1_000;
+    }
+}
@@ -0,0 +1,124 @@
+package org.perfume.domain.repo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkouts racing for one hot SKU through the conditional reservation update, each in its own
+ * transaction like checkout. Every other thread also takes a second SKU, so the row locks are taken
+ * for two rows in both map orders. Run with {@code mvn test -Pbenchmark}.
+ *
+ * <p>The rows have to commit for the threads to contend, so this benchmark runs outside a test
+ * transaction and deletes what it created.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PerfumeJdbcDao.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class StockReservationBenchmarkTest {
+
+    private static final int UNITS = 2_000;
+    private static final int[] THREADS = {1, 4, 16, 32};
+
+    @Autowired
+    private PerfumeJdbcDao perfumeJdbcDao;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void deleteCatalog() {
+        jdbc.update("delete from products where name like 'Benchmark SKU %'");
+        jdbc.update("delete from brands where name = 'Benchmark SKU brand'");
+        jdbc.update("delete from categories where name = 'Benchmark SKU category'");
+    }
+
+    @Test
+    void hotSkuThroughput() throws Exception {
+        jdbc.update("insert into brands(name) values ('Benchmark SKU brand')");
+        jdbc.update("insert into categories(name) values ('Benchmark SKU category')");
+        Long hot = insertPerfume("Benchmark SKU hot");
+        Long other = insertPerfume("Benchmark SKU other");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        StringBuilder report = new StringBuilder()
+                .append(String.format("%n%d units of one SKU per round, one reservation per transaction%n", UNITS))
+                .append(String.format("%-8s %10s %10s %14s%n", "threads", "reserved", "ms", "reservations/s"));
+
+        for (int threads : THREADS) {
+            jdbc.update("update products set stock_quantity = ? where id = ?", UNITS, hot);
+            jdbc.update("update products set stock_quantity = ? where id = ?", UNITS, other);
+
+            AtomicInteger reserved = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> workers = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                Map<Long, Integer> order = t % 2 == 0 ? Map.of(hot, 1) : Map.of(other, 1, hot, 1);
+                workers.add(pool.submit(() -> {
+                    // A checkout that comes back short rolls back whatever it took, as checkout does
+                    while (Boolean.TRUE.equals(transaction.execute(status -> {
+                        if (perfumeJdbcDao.reserveStock(order).size() == order.size()) {
+                            return true;
+                        }
+                        status.setRollbackOnly();
+                        return false;
+                    }))) {
+                        reserved.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            pool.shutdown();
+
+            assertThat(reserved.get()).as("reserved with %d threads", threads).isEqualTo(UNITS);
+            assertThat(stock(hot)).as("hot stock with %d threads", threads).isZero();
+            report.append(String.format("%-8d %10d %10d %14d%n", threads, reserved.get(), millis, reserved.get() * 1000L / Math.max(1, millis)));
+        }
+        System.out.print(report);
+    }
+
+    private Long insertPerfume(String name) {
+        return jdbc.queryForObject("""
+                insert into products(name, price, discount_percent, stock_quantity, brand_id, category_id,
+                                     fragrance_family, gender, created_at, updated_at)
+                select ?, 100, 0, 0, b.id, c.id, 'WOODY', 'UNISEX', now(), now()
+                from brands b, categories c
+                where b.name = 'Benchmark SKU brand' and c.name = 'Benchmark SKU category'
+                returning id
+                """, Long.class, name);
+    }
+
+    private int stock(Long id) {
+        return jdbc.queryForObject("select stock_quantity from products where id = ?", Integer.class, id);
+    }
+}
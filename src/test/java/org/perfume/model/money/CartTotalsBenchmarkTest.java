@@ -0,0 +1,99 @@
+package org.perfume.model.money;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.perfume.domain.converter.MinorUnitsConverter;
+import org.perfume.domain.entity.Cart;
+import org.perfume.domain.entity.CartItem;
+import org.perfume.domain.entity.Perfume;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart totals three ways: BigDecimal per line as before the Money type, Money built from the
+ * BigDecimal price per line, and {@link Cart#getTotalPrice()} summing the minor-unit prices as longs.
+ * JMH with the GC profiler, so gc.alloc.rate.norm shows the bytes allocated per total. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CartTotalsBenchmarkTest {
+
+    @Param({"1", "10", "50"})
+    public int lines;
+
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        MinorUnitsConverter converter = new MinorUnitsConverter();
+        cart = new Cart();
+        for (int i = 0; i < lines; i++) {
+            // Prices as they come back from the NUMERIC(38, 2) column, both mappings of it
+            BigDecimal price = BigDecimal.valueOf(1999 + i * 1250L, Money.SCALE);
+            Perfume perfume = new Perfume();
+            perfume.setId((long) i);
+            perfume.setDiscountedPrice(price);
+            perfume.setDiscountedPriceMinor(converter.convertToEntityAttribute(price));
+
+            CartItem item = new CartItem();
+            item.setId((long) i);
+            item.setPerfume(perfume);
+            item.setQuantity(1 + i % 3);
+            item.setCart(cart);
+            cart.getItems().add(item);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalPerLine() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem item : cart.getItems()) {
+            total = total.add(item.getPerfume().getDiscountedPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long moneyPerLine() {
+        long totalMinor = 0;
+        for (CartItem item : cart.getItems()) {
+            totalMinor = Math.addExact(totalMinor, Money.of(item.getPerfume().getDiscountedPrice()).times(item.getQuantity()).getMinor());
+        }
+        return totalMinor;
+    }
+
+    @Benchmark
+    public Money minorUnits() {
+        return cart.getTotalPrice();
+    }
+
+    @Test
+    void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(CartTotalsBenchmarkTest.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,139 @@
+package org.perfume.service.impl;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.perfume.domain.entity.Brand;
+import org.perfume.domain.entity.Category;
+import org.perfume.domain.entity.Perfume;
+import org.perfume.domain.repo.BrandDao;
+import org.perfume.domain.repo.CategoryDao;
+import org.perfume.domain.repo.PerfumeDao;
+import org.perfume.model.dto.request.ProductFilterRequest;
+import org.perfume.model.enums.FragranceFamily;
+import org.perfume.model.enums.Gender;
+import org.perfume.service.PerfumeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every perfume listing must load brand and category with the perfumes, so the number of
+ * statements per service call stays the same however many perfumes (and brands) the catalog holds.
+ */
+@SpringBootTest
+@Transactional
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // A cached brand or DTO would hide a lazy load, so every association has to come from the listing itself
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.cache.type=none"
+})
+class PerfumeServiceStatementCountTest {
+
+    @Autowired
+    private PerfumeService perfumeService;
+
+    @Autowired
+    private PerfumeDao perfumeDao;
+
+    @Autowired
+    private BrandDao brandDao;
+
+    @Autowired
+    private CategoryDao categoryDao;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Category category;
+    private int seeded;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        category = new Category();
+        category.setName("Statement count category");
+        categoryDao.save(category);
+    }
+
+    @Test
+    void listingsRunTheSameStatementsWhateverTheCatalogSize() {
+        seed(3);
+        Map<String, Long> small = countStatements();
+
+        // More brands than hibernate.default_batch_fetch_size, so batched lazy loads would grow too
+        seed(40);
+        Map<String, Long> large = countStatements();
+
+        assertThat(small).allSatisfy((listing, statements) -> assertThat(statements).as(listing).isPositive());
+        assertThat(large).isEqualTo(small);
+    }
+
+    private Map<String, Long> countStatements() {
+        Long firstId = perfumeDao.findAll(Sort.by("id")).get(0).getId();
+        ProductFilterRequest filter = new ProductFilterRequest();
+        filter.setCategoryId(category.getId());
+        filter.setGender(Gender.MALE);
+        filter.setSize(100);
+
+        Map<String, Supplier<?>> calls = new LinkedHashMap<>();
+        calls.put("findById", () -> perfumeService.findById(firstId));
+        calls.put("findAll", () -> perfumeService.findAll());
+        calls.put("searchPerfumesByName", () -> perfumeService.searchPerfumesByName("Statement count perfume 1"));
+        calls.put("searchPerfumes", () -> perfumeService.searchPerfumes("count", 0, 100).getContent());
+        calls.put("getPerfumesByPriceRange", () -> perfumeService.getPerfumesByPriceRange(BigDecimal.ZERO, new BigDecimal("100")));
+        calls.put("getPerfumesByFragranceFamily", () -> perfumeService.getPerfumesByFragranceFamily(FragranceFamily.WOODY));
+        calls.put("getPerfumesByGender", () -> perfumeService.getPerfumesByGender(Gender.MALE));
+        calls.put("getLatestPerfumes", () -> perfumeService.getLatestPerfumes(0, 100).getContent());
+        calls.put("getLatestPerfumes(cursor)", () -> perfumeService.getLatestPerfumes(null, 100, false).getContent());
+        calls.put("getPerfumesWithFilters", () -> perfumeService.getPerfumesWithFilters(filter));
+        calls.put("scrollPerfumesWithFilters", () -> perfumeService.scrollPerfumesWithFilters(filter).getContent());
+
+        Map<String, Long> statements = new LinkedHashMap<>();
+        calls.forEach((name, call) -> {
+            entityManager.clear();
+            statistics.clear();
+            assertThat(call.get()).as(name).isNotNull();
+            statements.put(name, statistics.getPrepareStatementCount());
+        });
+        return statements;
+    }
+
+    private void seed(int count) {
+        for (int i = 0; i < count; i++) {
+            seeded++;
+            // One brand per perfume, so a lazy brand load would show up as an extra statement per row
+            Brand brand = new Brand();
+            brand.setName("Statement count brand " + seeded);
+            brandDao.save(brand);
+
+            Perfume perfume = new Perfume();
+            perfume.setName("Statement count perfume " + seeded);
+            perfume.setPrice(new BigDecimal("50.00"));
+            perfume.setDiscountPercent(0);
+            perfume.setStockQuantity(5);
+            perfume.setBrand(brand);
+            perfume.setCategory(category);
+            perfume.setGender(Gender.MALE);
+            perfume.setFragranceFamily(FragranceFamily.WOODY);
+            perfume.setFeatured(true);
+            perfumeDao.save(perfume);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,101 @@
+package org.perfume.service.index;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.perfume.benchmark.BenchmarkCatalog;
+import org.perfume.domain.entity.Perfume;
+import org.perfume.domain.repo.PerfumeDao;
+import org.perfume.model.dto.request.ProductFilterRequest;
+import org.perfume.model.enums.FragranceFamily;
+import org.perfume.model.enums.Gender;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filtered listing pages answered by the JPQL query the index falls back to, by the index alone,
+ * and by the index plus hydration of the page. Run with {@code mvn test -Pbenchmark}; the catalog
+ * size is {@code -Dbenchmark.perfumes} (100k by default).
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CatalogIndex.class)
+@TestPropertySource(properties = {"catalog.index.enabled=true", "spring.jpa.show-sql=false"})
+class CatalogIndexBenchmarkTest {
+
+    @Autowired
+    private CatalogIndex catalogIndex;
+
+    @Autowired
+    private PerfumeDao perfumeDao;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void filteredPagesAgainstJpql() {
+        BenchmarkCatalog.seed(jdbc);
+
+        long start = System.nanoTime();
+        catalogIndex.rebuild();
+        long rebuildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, ProductFilterRequest> filters = new LinkedHashMap<>();
+        filters.put("none / id", filter(null, null, null, null, "id"));
+        filters.put("brand / id", filter(BenchmarkCatalog.brandId(jdbc, 7), null, null, null, "id"));
+        filters.put("category+gender / price", filter(null, BenchmarkCatalog.categoryId(jdbc, 3), Gender.FEMALE, null, "discountedPrice"));
+        filters.put("gender+family / price", filter(null, null, Gender.MALE, FragranceFamily.WOODY, "discountedPrice"));
+
+        StringBuilder report = new StringBuilder()
+                .append(String.format("%n%d perfumes, index rebuild %d ms, page 3 of 20 rows, mean us per call%n",
+                        BenchmarkCatalog.PERFUMES, rebuildMillis))
+                .append(String.format("%-26s %10s %10s %12s%n", "filter / sort", "jpql", "index ids", "index+fetch"));
+
+        filters.forEach((name, filter) -> {
+            assertThat(ids(perfumeDao.findAllById(catalogIndex.findIds(filter).orElseThrow())))
+                    .as(name)
+                    .containsExactlyInAnyOrderElementsOf(ids(jpql(filter)));
+
+            report.append(String.format("%-26s %10d %10d %12d%n", name,
+                    BenchmarkCatalog.micros(() -> jpql(filter)),
+                    BenchmarkCatalog.micros(() -> catalogIndex.findIds(filter)),
+                    BenchmarkCatalog.micros(() -> perfumeDao.findAllById(catalogIndex.findIds(filter).orElseThrow()))));
+        });
+        System.out.print(report);
+    }
+
+    private List<Perfume> jpql(ProductFilterRequest filter) {
+        Sort sort = "id".equals(filter.getSortBy()) ? Sort.by("id") : Sort.by("discountedPrice").and(Sort.by("id"));
+        return perfumeDao.findWithFilters(null, filter.getBrandId(), filter.getCategoryId(), null, null,
+                filter.getGender(), filter.getFragranceFamily(), null, null,
+                PageRequest.of(filter.getPage(), filter.getSize(), sort));
+    }
+
+    private static List<Long> ids(List<Perfume> perfumes) {
+        return perfumes.stream().map(Perfume::getId).toList();
+    }
+
+    private static ProductFilterRequest filter(Long brandId, Long categoryId, Gender gender, FragranceFamily family, String sortBy) {
+        ProductFilterRequest filter = new ProductFilterRequest();
+        filter.setBrandId(brandId);
+        filter.setCategoryId(categoryId);
+        filter.setGender(gender);
+        filter.setFragranceFamily(family);
+        filter.setSortBy(sortBy);
+        filter.setPage(2);
+        filter.setSize(20);
+        return filter;
+    }
+}